@@ -0,0 +1,161 @@
+package api;
+
+import base.FormPage;
+import config.ConfigManager;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import logging.InteractionLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mô hình form chạy trên HTTP: nhập field thì lưu giá trị, bấm nút submit thì gửi JSON tới API,
+ * thông báo và lỗi validate được đọc từ response thay vì từ toast/DOM.
+ */
+public abstract class ApiForm implements FormPage {
+    private static final Logger logger = LoggerFactory.getLogger(ApiForm.class);
+
+    private final String path;
+    private final Set<String> fieldNames;
+    private final Set<String> submitButtons;
+    private final Map<String, String> fields = new LinkedHashMap<>();
+    private int status;
+    private String message;
+    private List<String> errors = Collections.emptyList();
+
+    protected ApiForm(String path, Set<String> fieldNames, Set<String> submitButtons) {
+        this.path = path;
+        this.fieldNames = fieldNames;
+        this.submitButtons = submitButtons;
+    }
+
+    /**
+     * Không có trang để mở, chỉ đưa form về trạng thái trống
+     */
+    @Override
+    public void navigateTo() {
+        fields.clear();
+        status = 0;
+        message = null;
+        errors = Collections.emptyList();
+    }
+
+    @Override
+    public void enterText(String text, String fieldName) {
+        String field = fieldName.toLowerCase();
+        if (!fieldNames.contains(field)) {
+            logger.error("Unrecognized field name: {}", fieldName);
+            throw new IllegalArgumentException("Unrecognized field name: " + fieldName);
+        }
+        InteractionLogger.log("enter", getClass().getSimpleName() + "." + field, "password".equals(field) ? "******" : text);
+        fields.put(field, text);
+    }
+
+    @Override
+    public void clickButton(String buttonName) {
+        if (!submitButtons.contains(buttonName.toLowerCase())) {
+            logger.error("Unrecognized button name: {}", buttonName);
+            throw new IllegalArgumentException("Unrecognized button name: " + buttonName);
+        }
+        submit();
+    }
+
+    protected void submit() {
+        InteractionLogger.log("post", getClass().getSimpleName(), path);
+        Response response = RestAssured.given()
+                .baseUri(ConfigManager.getInstance().getApiBaseUrl())
+                .filter(new AllureRestAssured())
+                .contentType(ContentType.JSON)
+                .body(fields)
+                .post(path);
+        status = response.getStatusCode();
+        parseBody(response);
+        logger.debug("{} {} -> {} message='{}' errors={}", getClass().getSimpleName(), path, status, message, errors);
+    }
+
+    private void parseBody(Response response) {
+        message = null;
+        errors = new ArrayList<>();
+        Object body;
+        try {
+            body = response.jsonPath().get("$");
+        } catch (Exception e) {
+            String text = response.asString().trim();
+            message = text.isEmpty() ? null : text;
+            return;
+        }
+        if (!(body instanceof Map)) {
+            return;
+        }
+        Map<?, ?> json = (Map<?, ?>) body;
+        if (json.get("message") != null) {
+            message = String.valueOf(json.get("message"));
+        }
+        collectErrors(json.get("errors"));
+    }
+
+    /**
+     * Lỗi validate có thể là map field -> message, danh sách message,
+     * hoặc danh sách object kiểu Spring ({field, defaultMessage})
+     */
+    private void collectErrors(Object value) {
+        if (value instanceof Map) {
+            for (Object fieldError : ((Map<?, ?>) value).values()) {
+                collectErrors(fieldError);
+            }
+        } else if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (item instanceof Map) {
+                    Map<?, ?> error = (Map<?, ?>) item;
+                    Object text = error.get("defaultMessage") != null ? error.get("defaultMessage") : error.get("message");
+                    if (text != null) {
+                        errors.add(String.valueOf(text));
+                    }
+                } else if (item != null) {
+                    errors.add(String.valueOf(item));
+                }
+            }
+        } else if (value != null) {
+            errors.add(String.valueOf(value));
+        }
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean isMessageDisplayed(String messageType) {
+        switch (messageType.toLowerCase()) {
+            case "success":
+                return status >= 200 && status < 300 && message != null;
+            case "error":
+                return !errors.isEmpty() || (status >= 400 && message != null);
+            default:
+                logger.warn("Unknown message type: {}", messageType);
+                return false;
+        }
+    }
+
+    @Override
+    public String getMessage() {
+        if (!errors.isEmpty()) {
+            return String.join(", ", errors);
+        }
+        return message != null ? message : "";
+    }
+
+    @Override
+    public List<String> getErrorMessages() {
+        return Collections.unmodifiableList(errors);
+    }
+}
@@ -0,0 +1,17 @@
+package api;
+
+import config.ConfigManager;
+
+import java.util.Set;
+
+/**
+ * Bản HTTP của LoginPage: cùng tên field và nút, gửi tới api.signinPath
+ */
+public class ApiLoginForm extends ApiForm {
+
+    public ApiLoginForm() {
+        super(ConfigManager.getInstance().getApiSigninPath(),
+                Set.of("username", "password"),
+                Set.of("sign in", "login", "submit"));
+    }
+}
@@ -0,0 +1,17 @@
+package api;
+
+import config.ConfigManager;
+
+import java.util.Set;
+
+/**
+ * Bản HTTP của RegisterPage: cùng tên field và nút, gửi tới api.signupPath
+ */
+public class ApiRegisterForm extends ApiForm {
+
+    public ApiRegisterForm() {
+        super(ConfigManager.getInstance().getApiSignupPath(),
+                Set.of("username", "email", "password"),
+                Set.of("register", "create account", "signup", "sign up"));
+    }
+}
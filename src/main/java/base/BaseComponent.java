@@ -1,25 +1,57 @@
 package base;
 
+import config.ConfigManager;
+import impact.ImpactRecorder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utils.ElementHelper;
+import utils.ElementPath;
+import utils.ElementResolver;
 
 import java.util.List;
 
 public abstract class BaseComponent {
     protected static final Logger logger = LoggerFactory.getLogger(BaseComponent.class);
-    protected static final int DEFAULT_TIMEOUT = 5;
+    protected static final int DEFAULT_TIMEOUT = ConfigManager.getInstance().getExplicitWait();
     
     protected WebDriver driver;
     protected ElementHelper elementHelper;
+    protected final ElementPath root;
 
     public BaseComponent(WebDriver driver) {
+        this(driver, ElementPath.top());
+    }
+
+    /**
+     * Component gắn với vùng chứa của nó (vd: ElementPath.top().within(By.cssSelector("nav"))):
+     * các @FindBy, find() và findAll() chỉ tìm bên trong root, nên locator con nên là CSS/XPath tương đối.
+     * Root được resolve một lần, dùng lại cho mọi lookup và tự resolve lại khi bị stale;
+     * frame được switch tự động và chỉ khi cần. Nhiều instance cùng loại trên một trang chỉ khác nhau root.
+     */
+    protected BaseComponent(WebDriver driver, ElementPath root) {
         this.driver = driver;
-        this.elementHelper = new ElementHelper(driver, DEFAULT_TIMEOUT);
-        PageFactory.initElements(driver, this);
+        this.root = root;
+        this.elementHelper = new ElementHelper(driver, DEFAULT_TIMEOUT, getClass().getSimpleName(), root);
+        PageFactory.initElements(new DefaultElementLocatorFactory(new RootSearchContext()), this);
+        ImpactRecorder.touch(getClass());
+    }
+
+    public ElementPath getRoot() {
+        return root;
+    }
+
+    protected WebElement find(By locator) {
+        return ElementResolver.forDriver(driver).find(root, locator);
+    }
+
+    protected List<WebElement> findAll(By locator) {
+        return ElementResolver.forDriver(driver).findAll(root, locator);
     }
 
     // Delegate methods to ElementHelper
@@ -58,4 +90,27 @@ public abstract class BaseComponent {
     protected boolean isEnabled(WebElement element) {
         return elementHelper.isEnabled(element);
     }
+
+    protected boolean isDisplayedNow(By locator) {
+        return elementHelper.isDisplayedNow(locator);
+    }
+
+    protected List<WebElement> findAllNow(By locator) {
+        return elementHelper.findAllNow(locator);
+    }
+
+    /**
+     * SearchContext cho PageFactory: mỗi lookup đi qua ElementResolver để dùng root đã cache
+     */
+    private final class RootSearchContext implements SearchContext {
+        @Override
+        public WebElement findElement(By by) {
+            return find(by);
+        }
+
+        @Override
+        public List<WebElement> findElements(By by) {
+            return findAll(by);
+        }
+    }
 }
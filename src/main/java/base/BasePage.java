@@ -1,19 +1,27 @@
 package base;
 
+import config.ConfigManager;
+import impact.ImpactRecorder;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import utils.ElementHelper;
+import utils.ElementResolver;
+import utils.PageReuse;
+import utils.PageStateSnapshot;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-public abstract class BasePage {
+public abstract class BasePage implements FormPage {
     protected static final Logger logger = LoggerFactory.getLogger(BasePage.class);
-    protected static final int DEFAULT_TIMEOUT = 5;
+    protected static final int DEFAULT_TIMEOUT = ConfigManager.getInstance().getExplicitWait();
     
     protected WebDriver driver;
     protected String pageUrl;
@@ -21,22 +29,38 @@ public abstract class BasePage {
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.elementHelper = new ElementHelper(driver, DEFAULT_TIMEOUT);
+        this.elementHelper = new ElementHelper(driver, DEFAULT_TIMEOUT, getClass().getSimpleName());
         PageFactory.initElements(driver, this);
+        ImpactRecorder.touch(getClass());
     }
 
+    @Override
     public void navigateTo() {
         logger.info("Navigating to page: {}", pageUrl);
         driver.get(pageUrl);
+        ElementResolver.forDriver(driver).onNavigation();
         waitForPageToLoad();
     }
 
+    /**
+     * Như navigateTo(), nhưng khi bật background.memoize thì dùng lại trang đang mở nếu nó vẫn sạch
+     * (xem PageReuse), bỏ qua driver.get và bước chờ load
+     */
+    public void navigateToOrReuse() {
+        if (ConfigManager.getInstance().isBackgroundMemoize() && PageReuse.tryReuse(driver, pageUrl)) {
+            logger.info("Reusing already open page: {}", pageUrl);
+            return;
+        }
+        navigateTo();
+    }
+
     public void waitForPageToLoad() {
         logger.debug("Waiting for page to load");
         try {
-            new ElementHelper(driver, 3).wait.until(webDriver -> 
+            // Cài sẵn observer ghi lịch sử toast trong cùng lần gọi kiểm tra readyState
+            new ElementHelper(driver, ConfigManager.getInstance().getPageReadyTimeout()).wait.until(webDriver -> 
                 Objects.equals(((JavascriptExecutor) webDriver)
-                    .executeScript("return document.readyState"), "complete"));
+                    .executeScript(PageStateSnapshot.INSTALL_TOAST_OBSERVER_SCRIPT + "return document.readyState"), "complete"));
         } catch (Exception e) {
             logger.warn("Timeout waiting for page to load: {}", e.getMessage());
         }
@@ -79,6 +103,30 @@ public abstract class BasePage {
         return elementHelper.isEnabled(element);
     }
 
+    protected boolean isDisplayedNow(By locator) {
+        return elementHelper.isDisplayedNow(locator);
+    }
+
+    protected List<WebElement> findAllNow(By locator) {
+        return elementHelper.findAllNow(locator);
+    }
+
+    /**
+     * Chờ lỗi form xuất hiện (tối đa bằng implicit wait), dùng khi scenario kỳ vọng có lỗi.
+     * Để kiểm tra "không có lỗi" hãy gọi trực tiếp getErrorMessages().
+     */
+    public List<String> waitForErrorMessages() {
+        try {
+            return new ElementHelper(driver, ConfigManager.getInstance().getImplicitWait()).wait.until(webDriver -> {
+                List<String> errorMessages = getErrorMessages();
+                return errorMessages.isEmpty() ? null : errorMessages;
+            });
+        } catch (TimeoutException e) {
+            logger.debug("No form error messages appeared");
+            return new ArrayList<>();
+        }
+    }
+
     // Abstract methods that all pages must implement
     public abstract void enterText(String text, String fieldName);
     public abstract void clickButton(String buttonName);
@@ -0,0 +1,22 @@
+package base;
+
+import java.util.List;
+
+/**
+ * Mô hình form mà các step Gherkin thao tác: nhập field, bấm nút, đọc thông báo.
+ * Có hai cách hiện thực: page object trên trình duyệt (BasePage) và client HTTP (package api).
+ */
+public interface FormPage {
+
+    void navigateTo();
+
+    void enterText(String text, String fieldName);
+
+    void clickButton(String buttonName);
+
+    boolean isMessageDisplayed(String messageType);
+
+    String getMessage();
+
+    List<String> getErrorMessages();
+}
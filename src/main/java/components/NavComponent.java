@@ -1,41 +1,55 @@
 package components;
 
 import base.BaseComponent;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.ElementPath;
+import utils.FindByChain;
 
 public class NavComponent extends BaseComponent {
     private static final Logger logger = LoggerFactory.getLogger(NavComponent.class);
+    public static final ElementPath DEFAULT_ROOT = ElementPath.top().within(By.cssSelector("nav"));
+    // Tương đối so với root <nav>
+    private static final String LOGOUT_BUTTON_XPATH = ".//button[text()='Logout']";
+    private static final String WELCOME_XPATH = ".//span[contains(.,'Welcome')]";
     
-    @FindBy(xpath = "//nav//a[text()='My App']")
+    @FindBy(xpath = ".//a[text()='My App']")
     private WebElement homePageLink;
 
-    @FindBy(xpath = "//nav//a[normalize-space()='Home']")
+    @FindBy(xpath = ".//a[normalize-space()='Home']")
     private WebElement homeLink;
 
-    @FindBy(xpath = "//nav//a[normalize-space()='Dashboard']")
+    @FindByChain({@FindBy(css = "a[href='/dashboard']"), @FindBy(xpath = ".//a[normalize-space()='Dashboard']")})
     private WebElement dashboardLink;
 
-    @FindBy(xpath = "//nav//a[normalize-space()='Profile']")
+    @FindByChain({@FindBy(css = "a[href='/profile']"), @FindBy(xpath = ".//a[normalize-space()='Profile']")})
     private WebElement profileLink;
 
-    @FindBy(xpath = "//nav//span[contains(.,'Welcome')]")
+    @FindBy(xpath = WELCOME_XPATH)
     private WebElement welcomeUsername;
 
-    @FindBy(xpath = "//nav//button[text()='Logout']")
+    @FindBy(xpath = LOGOUT_BUTTON_XPATH)
     private WebElement logoutButton;
 
-    @FindBy(xpath = "//nav//a[text()='Login']")
+    @FindByChain({@FindBy(css = "a[href='/login']"), @FindBy(xpath = ".//a[text()='Login']")})
     private WebElement loginLink;
 
-    @FindBy(xpath = "//nav//a[text()='Register']")
+    @FindByChain({@FindBy(css = "a[href='/register']"), @FindBy(xpath = ".//a[text()='Register']")})
     private WebElement registerLink;
 
     public NavComponent(WebDriver driver) {
-        super(driver);
+        this(driver, DEFAULT_ROOT);
+    }
+
+    /**
+     * Thanh điều hướng khác trên trang (vd: nav trong sidebar hoặc iframe)
+     */
+    public NavComponent(WebDriver driver, ElementPath root) {
+        super(driver, root);
     }
 
     public void navigateHomePage() {
@@ -78,13 +92,24 @@ public class NavComponent extends BaseComponent {
         }
     }
     
+    /**
+     * Kiểm tra ngay trạng thái đăng nhập (một lần gọi JS, không chờ)
+     */
     public boolean isLoggedIn() {
         try {
             logger.debug("Checking if user is logged in");
-            return isDisplayed(logoutButton) && isDisplayed(welcomeUsername);
+            return elementHelper.areDisplayedNow(LOGOUT_BUTTON_XPATH, WELCOME_XPATH);
         } catch (Exception e) {
             logger.debug("User is not logged in: {}", e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Chờ tối đa timeout cho đến khi giao diện ở trạng thái đã đăng nhập
+     */
+    public boolean waitUntilLoggedIn() {
+        logger.debug("Waiting for logged in state");
+        return elementHelper.waitUntilDisplayed(LOGOUT_BUTTON_XPATH, WELCOME_XPATH);
+    }
 }
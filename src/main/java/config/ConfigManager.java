@@ -1,55 +1,446 @@
 package config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
-public class ConfigManager {
-    private final Properties properties;
+/**
+ * Cấu hình dùng chung cho toàn bộ lần chạy, chỉ load một lần.
+ * Thứ tự ưu tiên (sau ghi đè trước): giá trị mặc định, config.properties,
+ * biến môi trường (vd: implicitWait -> IMPLICIT_WAIT), system property (-D).
+ */
+public final class ConfigManager {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigManager.class);
     private static final String CONFIG_FILE = "config.properties";
+    private static final ConfigManager INSTANCE = new ConfigManager();
+
+    private final Map<String, String> properties;
+
+    private final String browser;
+    private final boolean headless;
+    private final String baseUrl;
+    private final int implicitWait;
+    private final int pageLoadTimeout;
+    private final int explicitWait;
+    private final int pageReadyTimeout;
+    private final int toastTimeout;
+    private final int userPoolSize;
+    private final int userPoolLeaseTimeout;
+    private final int testDataPrefetch;
+    private final int parallelThreads;
+    private final int progressIntervalSeconds;
+    private final int progressPort;
+    private final int interactionSampleRate;
+    private final boolean driverReuse;
+    private final int driverPrewarm;
+    private final List<String> matrixBrowsers;
+    private final boolean profileTemplate;
+    private final String profileTemplateDir;
+    private final boolean browserLogs;
+    private final int browserLogsCapacity;
+    private final int watchdogStepTimeout;
+    private final int watchdogScenarioTimeout;
+    private final boolean backgroundMemoize;
+    private final String bindingMode;
+    private final String apiBaseUrl;
+    private final String apiSigninPath;
+    private final String apiSignupPath;
+    private final boolean virtualThreads;
+    private final int executorPlatformThreads;
+    private final String impactMapFile;
+    private final String perfHistoryFile;
+    private final int perfHistoryRuns;
+    private final int perfBaselineRuns;
+    private final int perfMinBaselineRuns;
+    private final int perfRegressionPercent;
+    private final int perfMinDeltaMs;
+    private final int resourcesBrowserMemoryMb;
+    private final int resourcesReserveMemoryMb;
+    private final int resourcesRecycleBrowserMb;
+    private final String resourcesAttachmentsDir;
+
+    private ConfigManager() {
+        properties = Collections.unmodifiableMap(loadProperties());
+
+        browser = getString("browser");
+        headless = getBoolean("headless");
+        baseUrl = stripTrailingSlash(getString("baseUrl"));
+        implicitWait = getInt("implicitWait");
+        pageLoadTimeout = getInt("pageLoadTimeout");
+        explicitWait = getInt("explicitWait");
+        pageReadyTimeout = getInt("pageReadyTimeout");
+        toastTimeout = getInt("toastTimeout");
+        userPoolSize = getInt("userPool.size");
+        userPoolLeaseTimeout = getInt("userPool.leaseTimeout");
+        testDataPrefetch = getInt("testData.prefetch");
+        parallelThreads = getInt("parallel.threads");
+        progressIntervalSeconds = getInt("progress.intervalSeconds");
+        progressPort = getInt("progress.port");
+        interactionSampleRate = getInt("interaction.sampleRate");
+        driverReuse = getBoolean("driver.reuse");
+        driverPrewarm = getInt("driver.prewarm");
+        matrixBrowsers = getList("matrix.browsers", browser);
+        profileTemplate = getBoolean("driver.profileTemplate");
+        profileTemplateDir = getString("driver.profileTemplateDir");
+        browserLogs = getBoolean("browserLogs.enabled");
+        browserLogsCapacity = getInt("browserLogs.capacity");
+        watchdogStepTimeout = getInt("watchdog.stepTimeout");
+        watchdogScenarioTimeout = getInt("watchdog.scenarioTimeout");
+        backgroundMemoize = getBoolean("background.memoize");
+        bindingMode = getString("binding.mode").toLowerCase();
+        if (!"browser".equals(bindingMode) && !"api".equals(bindingMode)) {
+            throw new IllegalStateException("Config 'binding.mode' must be 'browser' or 'api' but was: " + bindingMode);
+        }
+        String configuredApiBaseUrl = getString("api.baseUrl");
+        apiBaseUrl = configuredApiBaseUrl.isEmpty() ? baseUrl : stripTrailingSlash(configuredApiBaseUrl);
+        apiSigninPath = getString("api.signinPath");
+        apiSignupPath = getString("api.signupPath");
+        virtualThreads = getBoolean("executor.virtualThreads");
+        executorPlatformThreads = Math.max(1, getInt("executor.platformThreads"));
+        impactMapFile = getString("impact.mapFile");
+        perfHistoryFile = getString("perf.historyFile");
+        perfHistoryRuns = getInt("perf.historyRuns");
+        perfBaselineRuns = getInt("perf.baselineRuns");
+        perfMinBaselineRuns = getInt("perf.minBaselineRuns");
+        perfRegressionPercent = getInt("perf.regressionPercent");
+        perfMinDeltaMs = getInt("perf.minDeltaMs");
+        resourcesBrowserMemoryMb = Math.max(1, getInt("resources.browserMemoryMb"));
+        resourcesReserveMemoryMb = getInt("resources.reserveMemoryMb");
+        resourcesRecycleBrowserMb = getInt("resources.recycleBrowserMb");
+        resourcesAttachmentsDir = getString("resources.attachmentsDir");
+    }
 
-    public ConfigManager() {
-        properties = loadProperties();
+    public static ConfigManager getInstance() {
+        return INSTANCE;
     }
 
-    private Properties loadProperties() {
+    private static Properties defaults() {
         Properties props = new Properties();
-        try(InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+        props.setProperty("browser", "chrome");
+        props.setProperty("headless", "false");
+        props.setProperty("baseUrl", "https://spring-auth.vercel.app");
+        props.setProperty("implicitWait", "2");
+        props.setProperty("pageLoadTimeout", "10");
+        props.setProperty("explicitWait", "5");
+        props.setProperty("pageReadyTimeout", "3");
+        props.setProperty("toastTimeout", "1");
+        props.setProperty("userPool.size", "1");
+        props.setProperty("userPool.leaseTimeout", "60");
+        props.setProperty("testData.prefetch", "0");
+        props.setProperty("parallel.threads", "1");
+        props.setProperty("progress.intervalSeconds", "30");
+        props.setProperty("progress.port", "0");
+        props.setProperty("interaction.sampleRate", "1");
+        props.setProperty("driver.reuse", "false");
+        props.setProperty("driver.prewarm", "0");
+        props.setProperty("matrix.browsers", "");
+        props.setProperty("driver.profileTemplate", "false");
+        props.setProperty("driver.profileTemplateDir", "target/browser-profile-template");
+        props.setProperty("browserLogs.enabled", "false");
+        props.setProperty("browserLogs.capacity", "200");
+        props.setProperty("watchdog.stepTimeout", "120");
+        props.setProperty("watchdog.scenarioTimeout", "600");
+        props.setProperty("background.memoize", "false");
+        props.setProperty("binding.mode", "browser");
+        props.setProperty("api.baseUrl", "");
+        props.setProperty("api.signinPath", "/api/auth/signin");
+        props.setProperty("api.signupPath", "/api/auth/signup");
+        props.setProperty("executor.virtualThreads", "true");
+        props.setProperty("executor.platformThreads", "4");
+        props.setProperty("impact.mapFile", ".cache/impact-map.json");
+        props.setProperty("perf.historyFile", ".cache/perf-history.ndjson");
+        props.setProperty("perf.historyRuns", "50");
+        props.setProperty("perf.baselineRuns", "20");
+        props.setProperty("perf.minBaselineRuns", "5");
+        props.setProperty("perf.regressionPercent", "20");
+        props.setProperty("perf.minDeltaMs", "50");
+        props.setProperty("resources.browserMemoryMb", "700");
+        props.setProperty("resources.reserveMemoryMb", "1024");
+        props.setProperty("resources.recycleBrowserMb", "1500");
+        props.setProperty("resources.attachmentsDir", "target/cucumber-reports/attachments-disk");
+        return props;
+    }
+
+    private Map<String, String> loadProperties() {
+        Properties props = defaults();
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
             if (input != null) {
                 props.load(input);
             } else {
-                props.setProperty("browser", "chrome");
-                props.setProperty("implicitWait", "10");
-                props.setProperty("pageLoadTimeout", "30");
-                props.setProperty("baseUrl", "https://spring-auth.vercel.app");
+                logger.warn("{} not found on classpath, using defaults", CONFIG_FILE);
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("Failed to read {}: {}", CONFIG_FILE, e.getMessage());
+        }
+
+        Map<String, String> merged = new HashMap<>();
+        for (String key : props.stringPropertyNames()) {
+            merged.put(key, props.getProperty(key));
+        }
+        for (String key : props.stringPropertyNames()) {
+            String envValue = System.getenv(toEnvName(key));
+            if (envValue != null) {
+                merged.put(key, envValue);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            merged.put(key, System.getProperty(key));
+        }
+        return merged;
+    }
+
+    /**
+     * implicitWait -> IMPLICIT_WAIT, userPool.size -> USER_POOL_SIZE
+     */
+    static String toEnvName(String key) {
+        return key.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .replace('.', '_')
+                .replace('-', '_')
+                .toUpperCase();
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private String getString(String key) {
+        return properties.get(key).trim();
+    }
+
+    private boolean getBoolean(String key) {
+        return Boolean.parseBoolean(getString(key));
+    }
+
+    private List<String> getList(String key, String fallback) {
+        String value = getString(key);
+        if (value.isEmpty()) {
+            value = fallback;
+        }
+        return Collections.unmodifiableList(Arrays.asList(value.split("\\s*,\\s*")));
+    }
+
+    private int getInt(String key) {
+        String value = getString(key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Config '" + key + "' must be an integer but was: " + value, e);
         }
-        return props;
     }
 
     public String getBrowser() {
-        return properties.getProperty("browser", "chrome");
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
     }
 
     public int getImplicitWait() {
-        return Integer.parseInt(properties.getProperty("implicitWait", "10"));
+        return implicitWait;
     }
 
     public int getPageLoadTimeout() {
-        return Integer.parseInt(properties.getProperty("pageLoadTimeout", "30"));
+        return pageLoadTimeout;
     }
 
-    public String getBaseUrl() {
-        return properties.getProperty("baseUrl", "https://spring-auth.vercel.app");
+    public int getExplicitWait() {
+        return explicitWait;
     }
 
-    public String getProperty(String key) {
-        return properties.getProperty(key);
+    public int getPageReadyTimeout() {
+        return pageReadyTimeout;
+    }
+
+    public int getToastTimeout() {
+        return toastTimeout;
+    }
+
+    public int getUserPoolSize() {
+        return userPoolSize;
+    }
+
+    public int getUserPoolLeaseTimeout() {
+        return userPoolLeaseTimeout;
+    }
+
+    public int getTestDataPrefetch() {
+        return testDataPrefetch;
+    }
+
+    public int getParallelThreads() {
+        return parallelThreads;
+    }
+
+    public int getProgressIntervalSeconds() {
+        return progressIntervalSeconds;
+    }
+
+    public int getProgressPort() {
+        return progressPort;
+    }
+
+    public int getInteractionSampleRate() {
+        return interactionSampleRate;
+    }
+
+    public boolean isDriverReuse() {
+        return driverReuse;
+    }
+
+    /**
+     * Số trình duyệt khởi động sẵn khi bắt đầu chạy (driver.PrewarmPlugin), 0 = tắt
+     */
+    public int getDriverPrewarm() {
+        return driverPrewarm;
+    }
+
+    /**
+     * Danh sách trình duyệt cho chế độ matrix, vd: chrome,firefox,chrome:126
+     */
+    public List<String> getMatrixBrowsers() {
+        return matrixBrowsers;
+    }
+
+    public boolean isProfileTemplate() {
+        return profileTemplate;
+    }
+
+    public String getProfileTemplateDir() {
+        return profileTemplateDir;
+    }
+
+    public boolean isBrowserLogs() {
+        return browserLogs;
+    }
+
+    public int getBrowserLogsCapacity() {
+        return browserLogsCapacity;
+    }
+
+    public int getWatchdogStepTimeout() {
+        return watchdogStepTimeout;
+    }
+
+    public int getWatchdogScenarioTimeout() {
+        return watchdogScenarioTimeout;
+    }
+
+    public boolean isBackgroundMemoize() {
+        return backgroundMemoize;
+    }
+
+    /**
+     * binding.mode=api: step chạy trên client HTTP thay vì trình duyệt
+     */
+    public boolean isApiMode() {
+        return "api".equals(bindingMode);
+    }
+
+    public String getApiBaseUrl() {
+        return apiBaseUrl;
+    }
+
+    public String getApiSigninPath() {
+        return apiSigninPath;
+    }
+
+    public String getApiSignupPath() {
+        return apiSignupPath;
     }
 
-    public void setProperty(String key, String value) {
-        properties.setProperty(key, value);
+    /**
+     * Dùng virtual thread cho tác vụ nền khi JVM hỗ trợ (Java 21+)
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Số thread tối đa của pool dự phòng khi không có virtual thread
+     */
+    public int getExecutorPlatformThreads() {
+        return executorPlatformThreads;
+    }
+
+    /**
+     * File lưu impact map (scenario -> class đã dùng), nằm ngoài target để không mất khi mvn clean
+     */
+    public String getImpactMapFile() {
+        return impactMapFile;
+    }
+
+    public String getPerfHistoryFile() {
+        return perfHistoryFile;
+    }
+
+    /**
+     * Số lần chạy tối đa giữ trong lịch sử
+     */
+    public int getPerfHistoryRuns() {
+        return perfHistoryRuns;
+    }
+
+    /**
+     * Số lần chạy gần nhất dùng làm baseline
+     */
+    public int getPerfBaselineRuns() {
+        return perfBaselineRuns;
+    }
+
+    public int getPerfMinBaselineRuns() {
+        return perfMinBaselineRuns;
+    }
+
+    public int getPerfRegressionPercent() {
+        return perfRegressionPercent;
+    }
+
+    public int getPerfMinDeltaMs() {
+        return perfMinDeltaMs;
+    }
+
+    /**
+     * RAM ước tính cho mỗi trình duyệt (kể cả các process con), dùng để giới hạn số trình duyệt chạy cùng lúc
+     */
+    public int getResourcesBrowserMemoryMb() {
+        return resourcesBrowserMemoryMb;
+    }
+
+    /**
+     * RAM để dành cho JVM và hệ điều hành, không chia cho trình duyệt
+     */
+    public int getResourcesReserveMemoryMb() {
+        return resourcesReserveMemoryMb;
+    }
+
+    /**
+     * Trình duyệt có RSS vượt ngưỡng này (MB) bị đóng thay vì trả về pool, 0 = tắt
+     */
+    public int getResourcesRecycleBrowserMb() {
+        return resourcesRecycleBrowserMb;
+    }
+
+    /**
+     * Thư mục ghi screenshot trực tiếp ra đĩa (không giữ mảng byte trên heap)
+     */
+    public String getResourcesAttachmentsDir() {
+        return resourcesAttachmentsDir;
+    }
+
+    public String getProperty(String key) {
+        return properties.get(key);
     }
 }
@@ -16,12 +16,6 @@ public class TestContext {
     public TestContext(WebDriver driver) {
         this.driver = driver;
         this.scenarioContext = new ScenarioContext();
-        initializePageObjects();
-    }
-
-    public void initializePageObjects() {
-        loginPage = new LoginPage(driver);
-        registerPage = new RegisterPage(driver);
     }
 
     public WebDriver getDriver() {
@@ -32,11 +26,21 @@ public class TestContext {
         return scenarioContext;
     }
 
+    /**
+     * Page object được tạo khi cần lần đầu: scenario không dùng trang nào thì không khởi tạo trang đó
+     * (binding.mode=api không có driver, impact map chỉ ghi các trang thực sự được dùng)
+     */
     public LoginPage getLoginPage() {
+        if (loginPage == null) {
+            loginPage = new LoginPage(driver);
+        }
         return loginPage;
     }
 
     public RegisterPage getRegisterPage() {
+        if (registerPage == null) {
+            registerPage = new RegisterPage(driver);
+        }
         return registerPage;
     }
 }
@@ -0,0 +1,122 @@
+package data;
+
+import com.github.javafaker.Faker;
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.TaskExecutors;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sinh dữ liệu test không trùng lặp khi chạy song song.
+ * ID duy nhất = run ID + thread ID + bộ đếm, Faker được khởi tạo sẵn trong pool
+ * để các scenario không phải trả chi phí load locale mỗi lần.
+ */
+public final class TestDataGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(TestDataGenerator.class);
+
+    // Username của ứng dụng chỉ cho phép 2-20 ký tự
+    private static final int MAX_USERNAME_LENGTH = 20;
+    private static final int NAME_PART_LENGTH = 6;
+    private static final int FAKER_POOL_SIZE = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final String EMAIL_DOMAIN = "@example.com";
+
+    private static final String RUN_ID = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36, 36L * 36 * 36 * 36 * 36), 36);
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private static final Queue<Faker> FAKER_POOL = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Faker> FAKER = ThreadLocal.withInitial(TestDataGenerator::borrowFaker);
+    private static final Queue<UserData> PREFETCHED_USERS = new ConcurrentLinkedQueue<>();
+    private static final ExecutorService BACKGROUND = TaskExecutors.newExecutor("test-data-generator", 1);
+
+    static {
+        BACKGROUND.submit(() -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < FAKER_POOL_SIZE; i++) {
+                FAKER_POOL.add(new Faker(Locale.ENGLISH));
+            }
+            logger.debug("Preloaded {} Faker instances in {} ms", FAKER_POOL_SIZE,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        });
+        prefetchUsers(ConfigManager.getInstance().getTestDataPrefetch());
+    }
+
+    private TestDataGenerator() {
+    }
+
+    /**
+     * Lấy Faker đã tạo sẵn nếu còn, hết thì tạo ngay (không chờ): thread sau không bị chặn
+     * chỉ vì pool nhỏ hơn số worker. Mỗi thread giữ Faker của mình đến hết lần chạy.
+     */
+    private static Faker borrowFaker() {
+        Faker faker = FAKER_POOL.poll();
+        if (faker != null) {
+            return faker;
+        }
+        logger.debug("No preloaded Faker available, creating a new instance");
+        return new Faker(Locale.ENGLISH);
+    }
+
+    /**
+     * ID duy nhất trong toàn bộ lần chạy, ngắn để vừa giới hạn độ dài username
+     */
+    public static String uniqueId() {
+        return RUN_ID
+                + Long.toString(Thread.currentThread().getId(), 36)
+                + "_" + Long.toString(COUNTER.incrementAndGet(), 36);
+    }
+
+    public static String uniqueUsername() {
+        String name = FAKER.get().name().firstName().toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+        if (name.length() > NAME_PART_LENGTH) {
+            name = name.substring(0, NAME_PART_LENGTH);
+        }
+        String username = (name.isEmpty() ? "user" : name) + "_" + uniqueId();
+        return username.length() > MAX_USERNAME_LENGTH
+                ? username.substring(username.length() - MAX_USERNAME_LENGTH)
+                : username;
+    }
+
+    public static String uniqueEmail() {
+        return "user_" + uniqueId() + EMAIL_DOMAIN;
+    }
+
+    public static String randomPassword() {
+        return FAKER.get().internet().password(8, 20, true, true);
+    }
+
+    public static UserData newUser() {
+        String username = uniqueUsername();
+        return new UserData(username, username + EMAIL_DOMAIN, randomPassword());
+    }
+
+    /**
+     * Lấy user đã sinh sẵn nếu có, nếu không thì sinh ngay trên thread hiện tại
+     */
+    public static UserData nextUser() {
+        UserData user = PREFETCHED_USERS.poll();
+        return user != null ? user : newUser();
+    }
+
+    /**
+     * Sinh trước một lô user ở background để scenario không phải chờ Faker
+     */
+    public static void prefetchUsers(int count) {
+        if (count <= 0) {
+            return;
+        }
+        BACKGROUND.submit(() -> {
+            for (int i = 0; i < count; i++) {
+                PREFETCHED_USERS.add(newUser());
+            }
+            logger.debug("Prefetched {} test users", count);
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package data;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pages.RegisterPage;
+
+/**
+ * Đăng ký tài khoản cho user pool thông qua trang Register
+ */
+public class UiUserProvisioner implements UserProvisioner {
+    private static final Logger logger = LoggerFactory.getLogger(UiUserProvisioner.class);
+    private final WebDriver driver;
+
+    public UiUserProvisioner(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    @Override
+    public boolean provision(UserData user) {
+        logger.info("Provisioning pool user through UI: {}", user.getUsername());
+        RegisterPage registerPage = new RegisterPage(driver);
+        registerPage.navigateTo();
+        return registerPage.register(user.getUsername(), user.getEmail(), user.getPassword());
+    }
+}
@@ -0,0 +1,30 @@
+package data;
+
+public class UserData {
+    private final String username;
+    private final String email;
+    private final String password;
+
+    public UserData(String username, String email, String password) {
+        this.username = username;
+        this.email = email;
+        this.password = password;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String toString() {
+        return "UserData{username='" + username + "', email='" + email + "'}";
+    }
+}
@@ -0,0 +1,106 @@
+package data;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool tài khoản đăng nhập cho các scenario chạy song song.
+ * Mỗi scenario thuê (lease) một tài khoản riêng và trả lại khi kết thúc,
+ * nên các session phía server không tranh chấp nhau.
+ */
+public final class UserPool {
+    private static final Logger logger = LoggerFactory.getLogger(UserPool.class);
+
+    // Tài khoản có sẵn trên server, luôn nằm trong pool
+    public static final UserData DEFAULT_USER = new UserData("user", "user@example.com", "123456");
+
+    private static final UserPool INSTANCE = new UserPool(
+            ConfigManager.getInstance().getUserPoolSize(),
+            ConfigManager.getInstance().getUserPoolLeaseTimeout());
+
+    private final int size;
+    private final long leaseTimeoutSeconds;
+    private final BlockingQueue<UserData> available = new LinkedBlockingQueue<>();
+    private volatile boolean provisioned = false;
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong contendedLeases = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    private UserPool(int size, long leaseTimeoutSeconds) {
+        this.size = Math.max(1, size);
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+    }
+
+    public static UserPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Thuê một tài khoản, lần thuê đầu tiên sẽ tạo đủ tài khoản cho pool
+     */
+    public UserData lease(UserProvisioner provisioner) {
+        ensureProvisioned(provisioner);
+        long start = System.nanoTime();
+        UserData user = available.poll();
+        try {
+            if (user == null) {
+                contendedLeases.incrementAndGet();
+                logger.debug("User pool exhausted, waiting for a user to be released");
+                user = available.poll(leaseTimeoutSeconds, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (user == null) {
+            throw new IllegalStateException("No pooled user became available within " + leaseTimeoutSeconds + "s");
+        }
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        leases.incrementAndGet();
+        totalWaitMillis.addAndGet(waited);
+        maxWaitMillis.accumulateAndGet(waited, Math::max);
+        logger.debug("Leased pool user {} after {} ms", user.getUsername(), waited);
+        return user;
+    }
+
+    public void release(UserData user) {
+        if (user != null) {
+            logger.debug("Releasing pool user {}", user.getUsername());
+            available.offer(user);
+        }
+    }
+
+    private synchronized void ensureProvisioned(UserProvisioner provisioner) {
+        if (provisioned) {
+            return;
+        }
+        available.add(DEFAULT_USER);
+        for (int i = 1; i < size; i++) {
+            UserData user = TestDataGenerator.nextUser();
+            if (provisioner.provision(user)) {
+                available.add(user);
+            } else {
+                logger.warn("Failed to provision pool user {}", user.getUsername());
+            }
+        }
+        provisioned = true;
+        logger.info("User pool ready with {} of {} users", available.size(), size);
+    }
+
+    public boolean isProvisioned() {
+        return provisioned;
+    }
+
+    public String getStats() {
+        long total = leases.get();
+        return String.format("leases=%d, contended=%d, avgWait=%dms, maxWait=%dms",
+                total, contendedLeases.get(), total == 0 ? 0 : totalWaitMillis.get() / total, maxWaitMillis.get());
+    }
+}
@@ -0,0 +1,9 @@
+package data;
+
+/**
+ * Tạo tài khoản thật trên server cho user pool (qua UI hoặc API)
+ */
+@FunctionalInterface
+public interface UserProvisioner {
+    boolean provision(UserData user);
+}
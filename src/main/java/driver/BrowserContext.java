@@ -0,0 +1,28 @@
+package driver;
+
+import config.ConfigManager;
+
+/**
+ * Trình duyệt mà thread hiện tại (và các thread con của nó) chạy scenario.
+ * Ở chế độ matrix mỗi trình duyệt có một thread điều phối riêng, các worker
+ * thread của Cucumber kế thừa giá trị này.
+ */
+public final class BrowserContext {
+    private static final InheritableThreadLocal<BrowserSpec> CURRENT = new InheritableThreadLocal<>();
+
+    private BrowserContext() {
+    }
+
+    public static BrowserSpec current() {
+        BrowserSpec spec = CURRENT.get();
+        return spec != null ? spec : BrowserSpec.parse(ConfigManager.getInstance().getBrowser());
+    }
+
+    public static void set(BrowserSpec spec) {
+        CURRENT.set(spec);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
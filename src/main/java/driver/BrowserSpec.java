@@ -0,0 +1,60 @@
+package driver;
+
+import java.util.Objects;
+
+/**
+ * Trình duyệt và phiên bản (tuỳ chọn), viết dạng "chrome" hoặc "chrome:126"
+ */
+public final class BrowserSpec {
+    private final String name;
+    private final String version;
+
+    public BrowserSpec(String name, String version) {
+        this.name = name.trim().toLowerCase();
+        this.version = version == null || version.isBlank() ? null : version.trim();
+    }
+
+    public static BrowserSpec parse(String spec) {
+        int separator = spec.indexOf(':');
+        return separator < 0
+                ? new BrowserSpec(spec, null)
+                : new BrowserSpec(spec.substring(0, separator), spec.substring(separator + 1));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isFirefox() {
+        return "firefox".equals(name);
+    }
+
+    /**
+     * Tên dùng cho thư mục/nhãn kết quả, vd: chrome-126
+     */
+    public String getLabel() {
+        return version == null ? name : name + "-" + version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BrowserSpec)) return false;
+        BrowserSpec that = (BrowserSpec) o;
+        return name.equals(that.name) && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, version);
+    }
+
+    @Override
+    public String toString() {
+        return version == null ? name : name + ":" + version;
+    }
+}
@@ -0,0 +1,118 @@
+package driver;
+
+import config.ConfigManager;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import logging.BrowserLogCollector;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ElementResolver;
+import utils.ToastLog;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class DriverFactory {
+    private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
+    private static final Map<WebDriver, Path> PROFILE_CLONES = new ConcurrentHashMap<>();
+
+    private DriverFactory() {
+    }
+
+    public static WebDriver create(BrowserSpec spec) {
+        ConfigManager config = ConfigManager.getInstance();
+        boolean headless = config.isHeadless();
+        logger.info("Starting {} (headless: {})", spec, headless);
+
+        WebDriver driver;
+        if (spec.isFirefox()) {
+            WebDriverManager manager = WebDriverManager.firefoxdriver();
+            FirefoxOptions firefoxOptions = new FirefoxOptions();
+            if (spec.getVersion() != null) {
+                manager.browserVersion(spec.getVersion());
+                firefoxOptions.setBrowserVersion(spec.getVersion());
+            }
+            manager.setup();
+            if (headless) {
+                firefoxOptions.addArguments("--headless");
+            }
+            if (config.isBrowserLogs()) {
+                firefoxOptions.enableBiDi();
+            }
+            driver = new FirefoxDriver(firefoxOptions);
+        } else {
+            WebDriverManager manager = WebDriverManager.chromedriver();
+            if (spec.getVersion() != null) {
+                manager.browserVersion(spec.getVersion());
+            }
+            manager.setup();
+
+            Path profileClone = null;
+            if (config.isProfileTemplate()) {
+                Path template = ProfileTemplate.ensureWarm(spec, userDataDir -> chromeOptions(spec, headless, userDataDir));
+                profileClone = ProfileTemplate.cloneTemplate(template);
+            }
+            try {
+                driver = new ChromeDriver(chromeOptions(spec, headless, profileClone == null ? null : profileClone.toString()));
+            } catch (RuntimeException e) {
+                ProfileTemplate.deleteQuietly(profileClone);
+                throw e;
+            }
+            if (profileClone != null) {
+                PROFILE_CLONES.put(driver, profileClone);
+            }
+        }
+        if (config.isBrowserLogs()) {
+            BrowserLogCollector.attach(driver, config.getBrowserLogsCapacity());
+        }
+        driver.manage().window().maximize();
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
+        return driver;
+    }
+
+    /**
+     * Đóng trình duyệt và xoá bản sao profile của nó (nếu có)
+     */
+    public static void quit(WebDriver driver) {
+        BrowserLogCollector.detach(driver);
+        ElementResolver.release(driver);
+        ToastLog.release(driver);
+        ResourceGovernor.forget(driver);
+        try {
+            driver.quit();
+        } finally {
+            ProfileTemplate.deleteQuietly(PROFILE_CLONES.remove(driver));
+        }
+    }
+
+    private static ChromeOptions chromeOptions(BrowserSpec spec, boolean headless, String userDataDir) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        if (spec.getVersion() != null) {
+            chromeOptions.setBrowserVersion(spec.getVersion());
+        }
+        if (headless) {
+            chromeOptions.addArguments("--headless");
+        }
+        if (userDataDir != null) {
+            chromeOptions.addArguments("--user-data-dir=" + userDataDir);
+        }
+        if (ConfigManager.getInstance().isBrowserLogs()) {
+            chromeOptions.enableBiDi();
+        }
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-extensions");
+        chromeOptions.addArguments("--disable-infobars");
+        chromeOptions.addArguments("--disable-gpu");
+        chromeOptions.setPageLoadStrategy(PageLoadStrategy.EAGER);
+        return chromeOptions;
+    }
+}
@@ -0,0 +1,284 @@
+package driver;
+
+import config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.ElementResolver;
+import utils.TaskExecutors;
+import utils.ToastLog;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool WebDriver riêng cho từng trình duyệt (mỗi BrowserSpec một pool).
+ * Khi driver.reuse=true, driver được dọn trạng thái (cookie, storage) và giữ lại cho scenario sau,
+ * ngược lại driver bị đóng ngay khi scenario kết thúc như trước đây.
+ * Mỗi trình duyệt còn sống (đang dùng, đang rảnh hoặc khởi động sẵn) giữ một slot bộ nhớ của ResourceGovernor
+ * cho tới khi bị đóng; pool hết slot thì đóng trình duyệt rảnh của pool khác để lấy slot.
+ */
+public final class DriverPool {
+    private static final Logger logger = LoggerFactory.getLogger(DriverPool.class);
+    private static final Map<BrowserSpec, DriverPool> POOLS = new ConcurrentHashMap<>();
+    private static final AtomicInteger ACTIVE_BROWSERS = new AtomicInteger();
+
+    private final BrowserSpec spec;
+    private final boolean reuse;
+    private final Deque<WebDriver> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    // Trình duyệt đang/đã được khởi động sẵn, chưa có scenario nào nhận
+    private final Queue<Future<WebDriver>> warming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger prewarmed = new AtomicInteger();
+    private final AtomicLong warmupNanos = new AtomicLong();
+    private final AtomicLong warmupWaitNanos = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdownAll, "driver-pool-shutdown"));
+    }
+
+    private DriverPool(BrowserSpec spec) {
+        this.spec = spec;
+        this.reuse = ConfigManager.getInstance().isDriverReuse();
+    }
+
+    public static DriverPool forBrowser(BrowserSpec spec) {
+        return POOLS.computeIfAbsent(spec, DriverPool::new);
+    }
+
+    /**
+     * Số trình duyệt đang được scenario sử dụng trên tất cả các pool
+     */
+    public static int activeBrowsers() {
+        return ACTIVE_BROWSERS.get();
+    }
+
+    /**
+     * Khởi động trước count trình duyệt song song ở nền (không chờ), scenario đầu tiên nhận chúng
+     * qua acquire(). Thời gian khởi động được thống kê riêng (getStats()), không tính vào scenario
+     * trừ phần scenario phải chờ trình duyệt chưa khởi động xong. Không khởi động quá số slot bộ nhớ.
+     */
+    public void prewarm(int requested) {
+        int count = 0;
+        while (count < requested && ResourceGovernor.tryAcquireSlot()) {
+            count++;
+        }
+        if (count <= 0) {
+            return;
+        }
+        logger.info("Pre-warming {} {} browser(s)", count, spec);
+        long start = System.nanoTime();
+        AtomicInteger remaining = new AtomicInteger(count);
+        ExecutorService executor = TaskExecutors.newExecutor("driver-prewarm", count);
+        for (int i = 0; i < count; i++) {
+            warming.add(executor.submit(() -> {
+                try {
+                    WebDriver driver = DriverFactory.create(spec);
+                    created.incrementAndGet();
+                    prewarmed.incrementAndGet();
+                    return driver;
+                } catch (RuntimeException | Error e) {
+                    ResourceGovernor.releaseSlot();
+                    throw e;
+                } finally {
+                    if (remaining.decrementAndGet() == 0) {
+                        warmupNanos.set(System.nanoTime() - start);
+                        logger.info("Pre-warmed {} {} browser(s) in {} ms", prewarmed.get(), spec,
+                                TimeUnit.NANOSECONDS.toMillis(warmupNanos.get()));
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Chờ các trình duyệt đang khởi động sẵn, vd: để thời gian khởi động không lẫn vào số liệu đo
+     */
+    public void awaitWarmup() throws InterruptedException {
+        for (Future<WebDriver> warm : warming) {
+            try {
+                warm.get();
+            } catch (ExecutionException e) {
+                // acquire() sẽ bỏ qua và ghi log
+            }
+        }
+    }
+
+    /**
+     * Nhận trình duyệt cho scenario; trình duyệt rảnh và khởi động sẵn đã có slot, trình duyệt mới
+     * chờ slot bộ nhớ (ResourceGovernor) nếu đã dùng hết
+     */
+    public WebDriver acquire() {
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            if (isAlive(driver)) {
+                reused.incrementAndGet();
+                ACTIVE_BROWSERS.incrementAndGet();
+                return driver;
+            }
+            close(driver);
+        }
+        if ((driver = claimPrewarmed()) != null) {
+            ACTIVE_BROWSERS.incrementAndGet();
+            return driver;
+        }
+        ResourceGovernor.acquireSlot(DriverPool::closeIdleBrowser);
+        try {
+            driver = DriverFactory.create(spec);
+        } catch (RuntimeException | Error e) {
+            ResourceGovernor.releaseSlot();
+            throw e;
+        }
+        created.incrementAndGet();
+        ACTIVE_BROWSERS.incrementAndGet();
+        return driver;
+    }
+
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        ACTIVE_BROWSERS.decrementAndGet();
+        if (ResourceGovernor.shouldRecycle(driver) || !reuse) {
+            close(driver);
+            return;
+        }
+        try {
+            resetState(driver);
+            // Trình duyệt rảnh vẫn chiếm RAM nên giữ slot của nó
+            idle.addFirst(driver);
+        } catch (Exception e) {
+            logger.warn("Could not reset {} driver, closing it: {}", spec, e.getMessage());
+            close(driver);
+        }
+    }
+
+    /**
+     * Đóng driver hỏng thay vì trả về pool
+     */
+    public void discard(WebDriver driver) {
+        if (driver != null) {
+            ACTIVE_BROWSERS.decrementAndGet();
+            close(driver);
+        }
+    }
+
+    public String getStats() {
+        String stats = String.format("%s: created=%d, reused=%d, idle=%d", spec, created.get(), reused.get(), idle.size());
+        if (prewarmed.get() > 0) {
+            stats += String.format(", prewarmed=%d (warmup %d ms, scenarios waited %d ms)", prewarmed.get(),
+                    TimeUnit.NANOSECONDS.toMillis(warmupNanos.get()), TimeUnit.NANOSECONDS.toMillis(warmupWaitNanos.get()));
+        }
+        return stats;
+    }
+
+    /**
+     * Nhận một trình duyệt khởi động sẵn, chờ nếu nó chưa sẵn sàng (vẫn nhanh hơn khởi động mới)
+     */
+    private WebDriver claimPrewarmed() {
+        Future<WebDriver> warm;
+        while ((warm = warming.poll()) != null) {
+            long start = System.nanoTime();
+            try {
+                return warm.get();
+            } catch (ExecutionException e) {
+                logger.warn("Browser pre-warm failed for {}: {}", spec, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                warming.add(warm);
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                warmupWaitNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+        return null;
+    }
+
+    private static void resetState(WebDriver driver) {
+        ElementResolver.forDriver(driver).toTopLevel();
+        driver.manage().deleteAllCookies();
+        ((JavascriptExecutor) driver).executeScript(
+                "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}"
+                + ToastLog.CLEAR_PAGE_HISTORY_SCRIPT);
+        ToastLog.forDriver(driver).clear();
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Đóng một trình duyệt rảnh (cũ nhất) của pool bất kỳ; slot của nó không được trả lại
+     * mà chuyển cho người gọi. false nếu không pool nào có trình duyệt rảnh.
+     */
+    private static boolean closeIdleBrowser() {
+        for (DriverPool pool : POOLS.values()) {
+            WebDriver driver = pool.idle.pollLast();
+            if (driver != null) {
+                logger.info("Closing idle {} browser to free a slot", pool.spec);
+                quitQuietly(driver);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Đóng trình duyệt rồi mới trả slot: trình duyệt đang đóng vẫn chiếm RAM
+     */
+    private static void close(WebDriver driver) {
+        try {
+            quitQuietly(driver);
+        } finally {
+            ResourceGovernor.releaseSlot();
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        try {
+            DriverFactory.quit(driver);
+        } catch (Exception e) {
+            logger.debug("Error while quitting driver: {}", e.getMessage());
+        }
+    }
+
+    public static void shutdownAll() {
+        for (DriverPool pool : POOLS.values()) {
+            logger.info("Driver pool {}", pool.getStats());
+            WebDriver driver;
+            while ((driver = pool.idle.pollFirst()) != null) {
+                quitQuietly(driver);
+            }
+            Future<WebDriver> warm;
+            while ((warm = pool.warming.poll()) != null) {
+                try {
+                    quitQuietly(warm.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.debug("Pre-warmed browser was not available at shutdown: {}", e.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package driver;
+
+import config.ConfigManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Khởi động sẵn driver.prewarm trình duyệt ngay khi Cucumber tạo plugin, tức là trong lúc
+ * Cucumber còn đang parse feature và quét glue, để các scenario đầu tiên có trình duyệt chờ sẵn.
+ * Cuối lần chạy in thời gian khởi động riêng với thời gian test.
+ *
+ * Sử dụng: plugin = "driver.PrewarmPlugin"
+ */
+public class PrewarmPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(PrewarmPlugin.class);
+
+    private final DriverPool pool;
+
+    public PrewarmPlugin() {
+        ConfigManager config = ConfigManager.getInstance();
+        int count = config.isApiMode() ? 0 : config.getDriverPrewarm();
+        if (count > 0) {
+            pool = DriverPool.forBrowser(BrowserContext.current());
+            pool.prewarm(count);
+        } else {
+            pool = null;
+        }
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunFinished.class, event -> {
+            if (pool != null) {
+                logger.info("Driver pool {}", pool.getStats());
+            }
+        });
+    }
+}
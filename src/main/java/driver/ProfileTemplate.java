@@ -0,0 +1,199 @@
+package driver;
+
+import config.ConfigManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Profile Chrome mẫu: tạo một lần bằng cách mở các trang của app (HTTP cache, service worker đã có sẵn),
+ * sau đó mỗi trình duyệt mới chạy trên một bản sao riêng trong thư mục tạm.
+ * Bản sao dùng "cp --reflink=auto" (copy-on-write trên btrfs/xfs/apfs), nếu không có thì copy bằng Java.
+ */
+public final class ProfileTemplate {
+    private static final Logger logger = LoggerFactory.getLogger(ProfileTemplate.class);
+    private static final String MARKER_FILE = ".template-warm";
+    // File khoá của phiên Chrome đã đóng, không được copy sang bản sao
+    private static final List<String> SKIPPED_FILES = Arrays.asList(
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile", "DevToolsActivePort");
+    private static final String[] WARM_PATHS = {"/login", "/register", "/"};
+    private static final Map<BrowserSpec, FutureTask<Path>> TEMPLATES = new ConcurrentHashMap<>();
+
+    private ProfileTemplate() {
+    }
+
+    /**
+     * Trả về thư mục profile mẫu đã sẵn sàng, tạo mới nếu chưa có hoặc được tạo cho baseUrl khác.
+     * Map chỉ giữ FutureTask của từng spec: việc khởi động Chrome chạy ngoài computeIfAbsent nên không chặn
+     * spec khác, thread khác cùng spec chờ kết quả của lần tạo đang chạy.
+     */
+    public static Path ensureWarm(BrowserSpec spec, Function<String, ChromeOptions> optionsFactory) {
+        FutureTask<Path> task = TEMPLATES.computeIfAbsent(spec, key -> new FutureTask<>(() -> prepare(key, optionsFactory)));
+        // Chỉ lần gọi đầu tiên thực sự chạy, các lần sau không làm gì
+        task.run();
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            // Lần sau thử tạo lại
+            TEMPLATES.remove(spec, task);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Could not prepare browser profile template for " + spec, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for browser profile template for " + spec, e);
+        }
+    }
+
+    private static Path prepare(BrowserSpec spec, Function<String, ChromeOptions> optionsFactory) {
+        Path template = Paths.get(ConfigManager.getInstance().getProfileTemplateDir(), spec.getLabel()).toAbsolutePath();
+        String baseUrl = ConfigManager.getInstance().getBaseUrl();
+        Path marker = template.resolve(MARKER_FILE);
+        try {
+            if (Files.exists(marker) && baseUrl.equals(new String(Files.readAllBytes(marker), StandardCharsets.UTF_8))) {
+                logger.info("Using browser profile template {}", template);
+                return template;
+            }
+            deleteQuietly(template);
+            Files.createDirectories(template);
+            warm(template, baseUrl, optionsFactory);
+            Files.write(marker, baseUrl.getBytes(StandardCharsets.UTF_8));
+            return template;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare browser profile template in " + template, e);
+        }
+    }
+
+    private static void warm(Path template, String baseUrl, Function<String, ChromeOptions> optionsFactory) {
+        long start = System.nanoTime();
+        WebDriver driver = new ChromeDriver(optionsFactory.apply(template.toString()));
+        try {
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigManager.getInstance().getPageLoadTimeout()));
+            for (String path : WARM_PATHS) {
+                driver.get(baseUrl + path);
+                new WebDriverWait(driver, Duration.ofSeconds(ConfigManager.getInstance().getPageReadyTimeout()))
+                        .until(webDriver -> "complete".equals(
+                                ((JavascriptExecutor) webDriver).executeScript("return document.readyState")));
+                // Chờ service worker (nếu app có) được kích hoạt trước khi đóng trình duyệt
+                driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(5));
+                ((JavascriptExecutor) driver).executeAsyncScript(
+                        "var done = arguments[arguments.length - 1];"
+                        + "if (!('serviceWorker' in navigator)) { done(); return; }"
+                        + "navigator.serviceWorker.getRegistration().then(function(reg) {"
+                        + "  if (!reg) { done(); return; }"
+                        + "  Promise.race([navigator.serviceWorker.ready, new Promise(function(r) { setTimeout(r, 3000); })])"
+                        + "    .then(function() { done(); });"
+                        + "}, function() { done(); });");
+            }
+        } finally {
+            // Chrome chỉ ghi cache xuống đĩa đầy đủ khi đóng bình thường
+            driver.quit();
+        }
+        logger.info("Browser profile template warmed in {} ms: {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), template);
+    }
+
+    /**
+     * Tạo bản sao của profile mẫu trong thư mục tạm cho một trình duyệt mới
+     */
+    public static Path cloneTemplate(Path template) {
+        try {
+            Path clone = Files.createTempDirectory("browser-profile-");
+            if (!reflinkCopy(template, clone)) {
+                javaCopy(template, clone);
+            }
+            for (String skipped : SKIPPED_FILES) {
+                Files.deleteIfExists(clone.resolve(skipped));
+            }
+            return clone;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not clone browser profile template " + template, e);
+        }
+    }
+
+    private static boolean reflinkCopy(Path template, Path clone) {
+        if (System.getProperty("os.name").toLowerCase().contains("win")) {
+            return false;
+        }
+        try {
+            Process process = new ProcessBuilder("cp", "-a", "--reflink=auto", template + "/.", clone.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            return process.waitFor(60, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            logger.debug("cp --reflink not available: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void javaCopy(Path template, Path clone) throws IOException {
+        Files.walkFileTree(template, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(clone.resolve(template.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!SKIPPED_FILES.contains(file.getFileName().toString()) && attrs.isRegularFile()) {
+                    Files.copy(file, clone.resolve(template.relativize(file).toString()),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    public static void deleteQuietly(Path directory) {
+        if (directory == null || !Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", directory, e.getMessage());
+        }
+    }
+}
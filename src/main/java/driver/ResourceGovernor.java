@@ -0,0 +1,460 @@
+package driver;
+
+import config.ConfigManager;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Giới hạn tài nguyên cho các lần chạy song song dài:
+ * - số trình duyệt đang mở (trên mọi pool, kể cả trình duyệt rảnh chờ dùng lại) không vượt quá số slot tính từ RAM còn trống lúc khởi động:
+ *   (còn trống - resources.reserveMemoryMb) / resources.browserMemoryMb, tối thiểu 1, với "còn trống" là
+ *   MemAvailable hoặc phần còn lại trong giới hạn cgroup (container) nếu nhỏ hơn; worker vượt quá chờ ở
+ *   DriverPool.acquire() thay vì làm máy hết RAM. Ngoài Linux không giới hạn (xem computeBrowserSlots)
+ * - RSS của trình duyệt (process chính và mọi process con, đọc từ /proc) được đo khi trả về pool,
+ *   vượt resources.recycleBrowserMb thì trình duyệt bị đóng thay vì dùng lại
+ * - thống kê bộ nhớ theo từng worker (thread chạy scenario): RSS trình duyệt lớn nhất và lượng heap đã cấp phát
+ *
+ * Đo RSS chỉ có trên Linux với trình duyệt chạy cục bộ (Chrome/Edge theo userDataDir, Firefox theo moz:processID).
+ */
+public final class ResourceGovernor {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceGovernor.class);
+    private static final long MB = 1024L * 1024L;
+    private static final Path PROC = Paths.get("/proc");
+    private static final Path CGROUP = Paths.get("/sys/fs/cgroup");
+    // cgroup v1 ghi "không giới hạn" bằng một số gần Long.MAX_VALUE
+    private static final long CGROUP_UNLIMITED = Long.MAX_VALUE / 2;
+
+    private static final int BROWSER_SLOTS = computeBrowserSlots();
+    private static final Semaphore SLOTS = new Semaphore(BROWSER_SLOTS, true);
+    private static final Map<WebDriver, Long> BROWSER_PIDS = new ConcurrentHashMap<>();
+    private static final Map<String, WorkerUsage> WORKERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger RECYCLED = new AtomicInteger();
+    private static final AtomicLong SLOT_WAIT_NANOS = new AtomicLong();
+    private static final AtomicLong LOWEST_AVAILABLE = new AtomicLong(Long.MAX_VALUE);
+
+    private ResourceGovernor() {
+    }
+
+    /**
+     * Lấy slot cho một trình duyệt mới, chờ nếu hết. Slot đi theo trình duyệt còn sống, kể cả khi nó đang rảnh
+     * trong pool; closeIdle đóng một trình duyệt rảnh (của pool bất kỳ) và trả true khi đó slot của nó
+     * được chuyển thẳng cho người gọi.
+     */
+    static void acquireSlot(BooleanSupplier closeIdle) {
+        if (SLOTS.tryAcquire() || closeIdle.getAsBoolean()) {
+            return;
+        }
+        logger.info("All {} browser slot(s) in use, waiting for memory to free up", BROWSER_SLOTS);
+        long start = System.nanoTime();
+        try {
+            // Trình duyệt trả về pool trong lúc chờ giữ nguyên slot: thử lại việc đóng trình duyệt rảnh định kỳ
+            while (!SLOTS.tryAcquire(1, TimeUnit.SECONDS) && !closeIdle.getAsBoolean()) {
+                logger.debug("Still waiting for a browser slot");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser slot", e);
+        } finally {
+            SLOT_WAIT_NANOS.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Lấy slot nếu còn trống, không chờ (trình duyệt khởi động sẵn)
+     */
+    static boolean tryAcquireSlot() {
+        return SLOTS.tryAcquire();
+    }
+
+    static void releaseSlot() {
+        SLOTS.release();
+    }
+
+    /**
+     * Đo RSS trình duyệt khi trả về pool (ghi vào thống kê của worker hiện tại);
+     * true nếu vượt ngưỡng và cần đóng thay vì dùng lại
+     */
+    static boolean shouldRecycle(WebDriver driver) {
+        long rss = browserRssBytes(driver);
+        if (rss < 0) {
+            return false;
+        }
+        worker().recordBrowserRss(rss);
+        int thresholdMb = ConfigManager.getInstance().getResourcesRecycleBrowserMb();
+        if (thresholdMb > 0 && rss > thresholdMb * MB) {
+            RECYCLED.incrementAndGet();
+            logger.info("Recycling browser using {} MB (threshold {} MB)", rss / MB, thresholdMb);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Bỏ thông tin process của trình duyệt đã đóng
+     */
+    static void forget(WebDriver driver) {
+        BROWSER_PIDS.remove(driver);
+    }
+
+    /**
+     * Ghi nhận bộ nhớ của worker hiện tại sau một scenario (gọi trên thread chạy scenario)
+     */
+    public static void sampleWorker() {
+        worker().recordScenario(currentThreadAllocatedBytes());
+        long available = availableMemoryBytes();
+        if (available >= 0) {
+            LOWEST_AVAILABLE.accumulateAndGet(available, Math::min);
+        }
+    }
+
+    /**
+     * Thống kê theo tên worker
+     */
+    public static Map<String, WorkerUsage> getWorkerUsage() {
+        return new TreeMap<>(WORKERS);
+    }
+
+    /**
+     * Tổng đỉnh sử dụng của các vùng heap kể từ khi JVM khởi động
+     */
+    public static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    public static String getStats() {
+        long lowest = LOWEST_AVAILABLE.get();
+        return String.format("{browserSlots=%d, recycledBrowsers=%d, slotWaitMs=%d, peakHeapMb=%d, lowestAvailableMb=%s}",
+                BROWSER_SLOTS, RECYCLED.get(), SLOT_WAIT_NANOS.get() / 1_000_000, peakHeapBytes() / MB,
+                lowest == Long.MAX_VALUE ? "-" : String.valueOf(lowest / MB));
+    }
+
+    /**
+     * RAM còn dùng được (trên Linux xem linuxAvailableBytes, nơi khác là free memory của
+     * OperatingSystemMXBean), -1 nếu không đọc được
+     */
+    public static long availableMemoryBytes() {
+        long available = linuxAvailableBytes();
+        if (available >= 0) {
+            return available;
+        }
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getFreeMemorySize();
+        }
+        return -1;
+    }
+
+    /**
+     * MemAvailable của máy, hoặc phần còn lại trong giới hạn cgroup nếu nhỏ hơn; -1 nếu không phải Linux
+     */
+    private static long linuxAvailableBytes() {
+        Path meminfo = PROC.resolve("meminfo");
+        if (!Files.isReadable(meminfo)) {
+            return -1;
+        }
+        long available = -1;
+        try {
+            for (String line : Files.readAllLines(meminfo, StandardCharsets.UTF_8)) {
+                if (line.startsWith("MemAvailable:")) {
+                    available = parseKb(line) * 1024;
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read {}: {}", meminfo, e.getMessage());
+        }
+        long cgroup = cgroupAvailableBytes();
+        if (cgroup >= 0 && (available < 0 || cgroup < available)) {
+            return cgroup;
+        }
+        return available;
+    }
+
+    /**
+     * Phần bộ nhớ còn lại trong giới hạn cgroup của process (container, systemd slice...), -1 nếu không giới hạn.
+     * Giới hạn của cgroup cha cũng áp dụng nên lấy phần còn lại nhỏ nhất trên đường lên gốc;
+     * page cache chưa dùng tới (inactive_file) được coi là còn trống vì kernel thu hồi được.
+     */
+    private static long cgroupAvailableBytes() {
+        if (Files.exists(CGROUP.resolve("cgroup.controllers"))) {
+            // v2: /sys/fs/cgroup/<path>/memory.max
+            return cgroupAvailableBytes(CGROUP, cgroupPath(null), "memory.max", "memory.current", "inactive_file");
+        }
+        Path v1 = CGROUP.resolve("memory");
+        if (Files.isDirectory(v1)) {
+            // v1: /sys/fs/cgroup/memory/<path>/memory.limit_in_bytes
+            return cgroupAvailableBytes(v1, cgroupPath("memory"), "memory.limit_in_bytes", "memory.usage_in_bytes",
+                    "total_inactive_file");
+        }
+        return -1;
+    }
+
+    private static long cgroupAvailableBytes(Path root, String path, String limitFile, String usageFile, String inactiveKey) {
+        Path dir = root.resolve(path.replaceFirst("^/+", "")).normalize();
+        // Trong container, /proc/self/cgroup có thể chỉ tới đường dẫn của host mà không mount trong container
+        if (!dir.startsWith(root) || !Files.isDirectory(dir)) {
+            dir = root;
+        }
+        long lowest = -1;
+        for (Path current = dir; current != null && current.startsWith(root); current = current.getParent()) {
+            long limit = readCgroupValue(current.resolve(limitFile));
+            if (limit <= 0 || limit >= CGROUP_UNLIMITED) {
+                continue;
+            }
+            long usage = Math.max(0, readCgroupValue(current.resolve(usageFile)) - cgroupStat(current, inactiveKey));
+            long free = Math.max(0, limit - usage);
+            lowest = lowest < 0 ? free : Math.min(lowest, free);
+        }
+        return lowest;
+    }
+
+    /**
+     * Đường dẫn cgroup của process: controller null = cgroup v2 ("0::/path"), ngược lại dòng v1 có controller đó
+     */
+    private static String cgroupPath(String controller) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve("self").resolve("cgroup"), StandardCharsets.UTF_8)) {
+                String[] fields = line.split(":", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                boolean matches = controller == null
+                        ? "0".equals(fields[0]) && fields[1].isEmpty()
+                        : List.of(fields[1].split(",")).contains(controller);
+                if (matches) {
+                    return fields[2];
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read cgroup of this process: {}", e.getMessage());
+        }
+        return "/";
+    }
+
+    /**
+     * Giá trị số trong file của cgroup, -1 nếu không có hoặc là "max"
+     */
+    private static long readCgroupValue(Path file) {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long cgroupStat(Path dir, String key) {
+        try {
+            for (String line : Files.readAllLines(dir.resolve("memory.stat"), StandardCharsets.UTF_8)) {
+                if (line.startsWith(key + " ")) {
+                    return Long.parseLong(line.substring(key.length() + 1).trim());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Không có memory.stat: coi như không có page cache thu hồi được
+        }
+        return 0;
+    }
+
+    /**
+     * Tổng RSS của process trình duyệt và các process con (renderer, GPU...), -1 nếu không đo được.
+     * Bộ nhớ dùng chung giữa các process bị tính nhiều lần, nên đây là cận trên.
+     */
+    public static long browserRssBytes(WebDriver driver) {
+        if (!Files.isDirectory(PROC)) {
+            return -1;
+        }
+        Long pid = BROWSER_PIDS.computeIfAbsent(driver, ResourceGovernor::findBrowserPid);
+        if (pid < 0) {
+            return -1;
+        }
+        Map<Long, List<Long>> children = new HashMap<>();
+        try (DirectoryStream<Path> processes = Files.newDirectoryStream(PROC, "[0-9]*")) {
+            for (Path process : processes) {
+                long parent = parentPid(process);
+                if (parent > 0) {
+                    children.computeIfAbsent(parent, ignored -> new ArrayList<>())
+                            .add(Long.parseLong(process.getFileName().toString()));
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not list processes: {}", e.getMessage());
+            return -1;
+        }
+        long total = 0;
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.add(pid);
+        while (!pending.isEmpty()) {
+            long current = pending.poll();
+            total += rssBytes(current);
+            pending.addAll(children.getOrDefault(current, List.of()));
+        }
+        return total;
+    }
+
+    private static int computeBrowserSlots() {
+        ConfigManager config = ConfigManager.getInstance();
+        long available = linuxAvailableBytes();
+        if (available < 0) {
+            // Free memory của OperatingSystemMXBean (macOS/Windows) không tính cache thu hồi được,
+            // giới hạn theo nó sẽ bóp số trình duyệt vô lý
+            logger.warn("Reclaimable memory is only known on Linux (MemAvailable/cgroup), "
+                    + "not limiting concurrent browsers; set -Dcucumber.execution.parallel.config.fixed.parallelism to cap them");
+            return Integer.MAX_VALUE;
+        }
+        long usable = available / MB - config.getResourcesReserveMemoryMb();
+        int slots = (int) Math.max(1, usable / config.getResourcesBrowserMemoryMb());
+        logger.info("{} MB memory available, allowing {} concurrent browser(s) of ~{} MB",
+                available / MB, slots, config.getResourcesBrowserMemoryMb());
+        return slots;
+    }
+
+    /**
+     * PID process chính của trình duyệt, -1 nếu không tìm được (trình duyệt remote, hệ điều hành khác...)
+     */
+    @SuppressWarnings("unchecked")
+    private static Long findBrowserPid(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities)) {
+            return -1L;
+        }
+        Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+        Object firefoxPid = capabilities.getCapability("moz:processID");
+        if (firefoxPid instanceof Number) {
+            return ((Number) firefoxPid).longValue();
+        }
+        // Chrome/Edge: mỗi phiên có thư mục profile riêng, process chính nhận nó qua --user-data-dir
+        for (String browserKey : new String[]{"chrome", "msedge"}) {
+            Object info = capabilities.getCapability(browserKey);
+            if (info instanceof Map && ((Map<String, Object>) info).get("userDataDir") != null) {
+                return findByCommandLine("--user-data-dir=" + ((Map<String, Object>) info).get("userDataDir"));
+            }
+        }
+        return -1L;
+    }
+
+    private static long findByCommandLine(String argument) {
+        long found = -1;
+        try (DirectoryStream<Path> processes = Files.newDirectoryStream(PROC, "[0-9]*")) {
+            for (Path process : processes) {
+                try {
+                    String commandLine = new String(Files.readAllBytes(process.resolve("cmdline")), StandardCharsets.UTF_8);
+                    long pid = Long.parseLong(process.getFileName().toString());
+                    // Process có pid nhỏ nhất mang tham số là process chính
+                    if (commandLine.contains(argument) && (found < 0 || pid < found)) {
+                        found = pid;
+                    }
+                } catch (IOException e) {
+                    // Process đã kết thúc trong lúc quét
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Could not list processes: {}", e.getMessage());
+        }
+        return found;
+    }
+
+    private static long parentPid(Path process) {
+        try {
+            String stat = new String(Files.readAllBytes(process.resolve("stat")), StandardCharsets.UTF_8);
+            // "pid (comm) state ppid ...", comm có thể chứa dấu cách và ngoặc
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            return Long.parseLong(fields[1]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long rssBytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(String.valueOf(pid)).resolve("status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return parseKb(line) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Process đã kết thúc
+        }
+        return 0;
+    }
+
+    private static long parseKb(String line) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static WorkerUsage worker() {
+        return WORKERS.computeIfAbsent(Thread.currentThread().getName(), ignored -> new WorkerUsage());
+    }
+
+    /**
+     * Bộ nhớ của một worker
+     */
+    public static final class WorkerUsage {
+        private int scenarios;
+        private long peakBrowserRssBytes;
+        private long allocatedBytes;
+
+        private synchronized void recordBrowserRss(long rss) {
+            peakBrowserRssBytes = Math.max(peakBrowserRssBytes, rss);
+        }
+
+        private synchronized void recordScenario(long threadAllocatedBytes) {
+            scenarios++;
+            allocatedBytes = threadAllocatedBytes;
+        }
+
+        public synchronized int getScenarios() {
+            return scenarios;
+        }
+
+        /**
+         * RSS lớn nhất đo được của trình duyệt mà worker dùng, 0 nếu không đo được
+         */
+        public synchronized long getPeakBrowserRssBytes() {
+            return peakBrowserRssBytes;
+        }
+
+        /**
+         * Tổng heap thread của worker đã cấp phát (tích luỹ, gồm cả phần đã được GC), -1 nếu JVM không hỗ trợ
+         */
+        public synchronized long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package driver;
+
+import config.ConfigManager;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giám sát thời gian chạy của từng scenario và từng step trên một thread nền.
+ * Khi vượt giới hạn (watchdog.stepTimeout / watchdog.scenarioTimeout, giây, 0 = tắt):
+ * ghi chẩn đoán (thread dump, screenshot, DOM) vào target/watchdog, đóng trình duyệt bị treo
+ * và interrupt thread của scenario để phần còn lại của bộ test tiếp tục với trình duyệt mới.
+ */
+public final class ScenarioWatchdog {
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioWatchdog.class);
+    private static final Path DIAGNOSTICS_DIR = Paths.get("target", "watchdog");
+    private static final long DIAGNOSTIC_TIMEOUT_SECONDS = 10;
+    private static final Set<Watch> WATCHES = ConcurrentHashMap.newKeySet();
+    // Lệnh gửi tới trình duyệt treo cũng có thể treo mãi (cancel không giải phóng thread), nên chạy trên
+    // pool riêng không giới hạn: thread bị kẹt không chặn chẩn đoán của các scenario khác
+    private static final AtomicInteger CALL_THREADS = new AtomicInteger();
+    private static final ExecutorService BROWSER_CALLS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "scenario-watchdog-call-" + CALL_THREADS.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "scenario-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        SCHEDULER.scheduleWithFixedDelay(ScenarioWatchdog::check, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private ScenarioWatchdog() {
+    }
+
+    /**
+     * Bắt đầu giám sát scenario chạy trên thread hiện tại với driver lấy từ pool
+     */
+    public static Watch start(String scenarioName, WebDriver driver, DriverPool pool) {
+        ConfigManager config = ConfigManager.getInstance();
+        Watch watch = new Watch(scenarioName, driver, pool, Thread.currentThread(),
+                TimeUnit.SECONDS.toNanos(config.getWatchdogStepTimeout()),
+                TimeUnit.SECONDS.toNanos(config.getWatchdogScenarioTimeout()));
+        WATCHES.add(watch);
+        return watch;
+    }
+
+    private static void check() {
+        long now = System.nanoTime();
+        for (Watch watch : WATCHES) {
+            String reason = watch.exceededLimit(now);
+            if (reason != null && WATCHES.remove(watch)) {
+                try {
+                    fire(watch, reason);
+                } catch (RuntimeException e) {
+                    logger.error("Watchdog failed to handle '{}': {}", watch.scenarioName, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void fire(Watch watch, String reason) {
+        // Chỉ giữ khoá khi đổi trạng thái: stop() của scenario không phải chờ các lệnh gửi trình duyệt treo
+        synchronized (watch) {
+            if (watch.stopped) {
+                return;
+            }
+            watch.fired = reason;
+        }
+        logger.error("Watchdog: scenario '{}' {}, replacing its browser", watch.scenarioName, reason);
+        writeDiagnostics(watch, reason);
+
+        // Đóng phiên làm lệnh đang treo trả về lỗi, sau đó interrupt để thoát các vòng chờ
+        callBrowser(() -> {
+            watch.pool.discard(watch.driver);
+            return null;
+        });
+        synchronized (watch) {
+            // Scenario đã kết thúc thì thread đang chạy scenario khác, không interrupt nữa
+            if (!watch.stopped) {
+                watch.thread.interrupt();
+            }
+        }
+    }
+
+    private static void writeDiagnostics(Watch watch, String reason) {
+        Path dir = DIAGNOSTICS_DIR.resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "-" + watch.scenarioName.replaceAll("[^\\w-]+", "_"));
+        try {
+            Files.createDirectories(dir);
+            Files.write(dir.resolve("reason.txt"), (watch.scenarioName + System.lineSeparator() + reason)
+                    .getBytes(StandardCharsets.UTF_8));
+            Files.write(dir.resolve("threads.txt"), threadDump().getBytes(StandardCharsets.UTF_8));
+            byte[] screenshot = callBrowser(() -> ((TakesScreenshot) watch.driver).getScreenshotAs(OutputType.BYTES));
+            if (screenshot != null) {
+                Files.write(dir.resolve("screenshot.png"), screenshot);
+            }
+            String dom = callBrowser(watch.driver::getPageSource);
+            if (dom != null) {
+                Files.write(dir.resolve("dom.html"), dom.getBytes(StandardCharsets.UTF_8));
+            }
+            watch.diagnostics = dir;
+            logger.error("Watchdog diagnostics written to {}", dir.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not write watchdog diagnostics: {}", e.getMessage());
+        }
+    }
+
+    private static <T> T callBrowser(Callable<T> call) {
+        Future<T> future = BROWSER_CALLS.submit(call);
+        try {
+            return future.get(DIAGNOSTIC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            future.cancel(true);
+            logger.warn("Browser did not respond to watchdog: {}", e.toString());
+            return null;
+        }
+    }
+
+    private static String threadDump() {
+        StringBuilder dump = new StringBuilder();
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(true, true)) {
+            dump.append('"').append(info.getThreadName()).append("\" ").append(info.getThreadState());
+            if (info.getLockName() != null) {
+                dump.append(" on ").append(info.getLockName());
+            }
+            dump.append(System.lineSeparator());
+            for (StackTraceElement frame : info.getStackTrace()) {
+                dump.append("    at ").append(frame).append(System.lineSeparator());
+            }
+            dump.append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+
+    /**
+     * Trạng thái giám sát của một scenario
+     */
+    public static final class Watch {
+        private final String scenarioName;
+        private final WebDriver driver;
+        private final DriverPool pool;
+        private final Thread thread;
+        private final long stepLimitNanos;
+        private final long scenarioLimitNanos;
+        private final long startNanos = System.nanoTime();
+        // Step và thời điểm bắt đầu được công bố cùng nhau để thread watchdog không ghép step mới với giờ cũ
+        private volatile StepRun currentStep;
+        private volatile String fired;
+        private volatile Path diagnostics;
+        private boolean stopped;
+
+        private Watch(String scenarioName, WebDriver driver, DriverPool pool, Thread thread,
+                      long stepLimitNanos, long scenarioLimitNanos) {
+            this.scenarioName = scenarioName;
+            this.driver = driver;
+            this.pool = pool;
+            this.thread = thread;
+            this.stepLimitNanos = stepLimitNanos;
+            this.scenarioLimitNanos = scenarioLimitNanos;
+        }
+
+        public void stepStarted(String stepText) {
+            currentStep = new StepRun(stepText, System.nanoTime());
+        }
+
+        public void stepFinished() {
+            currentStep = null;
+        }
+
+        /**
+         * Ngừng giám sát; trả về true nếu watchdog đã can thiệp (driver đã bị đóng và không được trả về pool)
+         */
+        public synchronized boolean stop() {
+            WATCHES.remove(this);
+            stopped = true;
+            // Xoá cờ interrupt còn sót để không ảnh hưởng scenario sau trên cùng thread
+            Thread.interrupted();
+            return fired != null;
+        }
+
+        public boolean isFired() {
+            return fired != null;
+        }
+
+        public String getFiredReason() {
+            return fired;
+        }
+
+        public Path getDiagnostics() {
+            return diagnostics;
+        }
+
+        private String exceededLimit(long now) {
+            StepRun step = currentStep;
+            if (stepLimitNanos > 0 && step != null && now - step.startNanos > stepLimitNanos) {
+                return "exceeded step timeout of " + TimeUnit.NANOSECONDS.toSeconds(stepLimitNanos) + "s in step '" + step.text + "'";
+            }
+            if (scenarioLimitNanos > 0 && now - startNanos > scenarioLimitNanos) {
+                return "exceeded scenario timeout of " + TimeUnit.NANOSECONDS.toSeconds(scenarioLimitNanos) + "s";
+            }
+            return null;
+        }
+    }
+
+    private static final class StepRun {
+        private final String text;
+        private final long startNanos;
+
+        private StepRun(String text, long startNanos) {
+            this.text = text;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package impact;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Bản đồ ảnh hưởng: scenario (feature:line) -> các class glue, page, component mà nó đã dùng ở lần chạy gần nhất.
+ * Được lưu ra file JSON và cập nhật dần sau mỗi lần chạy (ImpactMapPlugin); từ danh sách file thay đổi
+ * (git diff) chọn ra những scenario cần chạy lại.
+ */
+public final class ImpactMap {
+    private static final Logger logger = LoggerFactory.getLogger(ImpactMap.class);
+    private static final String[] SOURCE_ROOTS = {"src/main/java/", "src/test/java/"};
+    // Hash của feature đã sửa nhưng chưa chạy đủ mọi scenario từ đó: không tin được map, chạy lại cả feature
+    private static final String INCOMPLETE = "";
+
+    private final Map<String, Entry> scenarios = new TreeMap<>();
+    private final Map<String, String> featureHashes = new TreeMap<>();
+
+    /**
+     * Đọc map từ file, file chưa có hoặc hỏng thì trả về map rỗng (lần chạy sau sẽ chạy toàn bộ)
+     */
+    @SuppressWarnings("unchecked")
+    public static ImpactMap load(Path file) {
+        ImpactMap map = new ImpactMap();
+        if (!Files.exists(file)) {
+            return map;
+        }
+        try {
+            Map<String, Object> json = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            Map<String, Object> scenarios = (Map<String, Object>) json.getOrDefault("scenarios", Map.of());
+            for (Map.Entry<String, Object> scenario : scenarios.entrySet()) {
+                Map<String, Object> value = (Map<String, Object>) scenario.getValue();
+                map.scenarios.put(scenario.getKey(), new Entry(String.valueOf(value.get("name")),
+                        new TreeSet<>((Collection<String>) value.getOrDefault("classes", List.of())),
+                        Boolean.TRUE.equals(value.get("passed"))));
+            }
+            ((Map<String, Object>) json.getOrDefault("features", Map.of()))
+                    .forEach((path, hash) -> map.featureHashes.put(path, String.valueOf(hash)));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read impact map {}, starting a new one: {}", file, e.getMessage());
+            map.scenarios.clear();
+            map.featureHashes.clear();
+        }
+        return map;
+    }
+
+    public void save(Path file) {
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        this.scenarios.forEach((key, entry) -> {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("name", entry.name);
+            value.put("passed", entry.passed);
+            value.put("classes", entry.classes);
+            scenarios.put(key, value);
+        });
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("features", featureHashes);
+        json.put("scenarios", scenarios);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write impact map " + file, e);
+        }
+    }
+
+    public void merge(Map<String, Entry> recorded) {
+        merge(recorded, Map.of());
+    }
+
+    /**
+     * Gộp kết quả của một lần chạy: scenario vừa chạy được ghi đè, scenario khác giữ nguyên.
+     * Feature đã bị sửa từ lần ghi trước thì bỏ hết dòng cũ của nó (số dòng không còn đúng); nếu lần chạy
+     * không phủ hết các dòng scenario hiện có của feature (scenarioLines, từ parser) thì feature bị đánh dấu
+     * chưa đủ và select() chạy lại cả feature cho tới khi nó được ghi lại đầy đủ.
+     * Feature đã bị xoá thì bỏ khỏi map.
+     */
+    public void merge(Map<String, Entry> recorded, Map<String, Set<Integer>> scenarioLines) {
+        Map<String, Set<Integer>> recordedLines = new LinkedHashMap<>();
+        recorded.keySet().forEach(key -> recordedLines.computeIfAbsent(featureOf(key), ignored -> new TreeSet<>())
+                .add(lineOf(key)));
+        for (Map.Entry<String, Set<Integer>> ran : recordedLines.entrySet()) {
+            String feature = ran.getKey();
+            String hash = hash(Paths.get(feature));
+            if (hash == null) {
+                continue;
+            }
+            String previous = featureHashes.put(feature, hash);
+            if (previous != null && !previous.equals(hash)) {
+                scenarios.keySet().removeIf(key -> featureOf(key).equals(feature));
+                Set<Integer> all = scenarioLines.get(feature);
+                if (all == null || !ran.getValue().containsAll(all)) {
+                    featureHashes.put(feature, INCOMPLETE);
+                }
+            }
+        }
+        scenarios.putAll(recorded);
+        scenarios.keySet().removeIf(key -> !Files.exists(Paths.get(featureOf(key))));
+        featureHashes.keySet().removeIf(feature -> !Files.exists(Paths.get(feature)));
+    }
+
+    public boolean isEmpty() {
+        return scenarios.isEmpty();
+    }
+
+    public int size() {
+        return scenarios.size();
+    }
+
+    /**
+     * Chọn scenario bị ảnh hưởng bởi các file thay đổi (đường dẫn tương đối so với thư mục project):
+     * - file .feature: chạy lại cả feature
+     * - class Java đã được scenario nào đó dùng: chạy lại các scenario đó
+     * - class Java chưa có trong map, resource, pom.xml: không biết phạm vi ảnh hưởng nên chạy toàn bộ
+     * - file ngoài src (tài liệu...): bỏ qua
+     * Scenario thất bại ở lần chạy trước luôn được chọn lại. Feature đã khác với lúc ghi map (vd: sửa đã được
+     * commit nên không có trong diff) thì số dòng trong map không còn đúng: chạy lại cả feature.
+     */
+    public Selection select(Collection<String> changedFiles) {
+        Selection selection = new Selection();
+        if (scenarios.isEmpty()) {
+            return selection.full("no impact map recorded yet");
+        }
+        Set<String> features = new TreeSet<>(featureHashes.keySet());
+        scenarios.keySet().forEach(key -> features.add(featureOf(key)));
+        for (String feature : features) {
+            String recordedHash = featureHashes.get(feature);
+            String hash = hash(Paths.get(feature));
+            if (INCOMPLETE.equals(recordedHash)) {
+                selection.addFeature(feature, "not fully recorded since it was edited");
+            } else if (hash != null && !hash.equals(recordedHash)) {
+                selection.addFeature(feature, "edited since the impact map was recorded");
+            }
+        }
+        Map<String, Set<String>> usersByClass = new HashMap<>();
+        scenarios.forEach((key, entry) -> entry.classes.forEach(
+                type -> usersByClass.computeIfAbsent(outerClass(type), ignored -> new TreeSet<>()).add(key)));
+
+        for (String file : changedFiles) {
+            String path = file.replace('\\', '/');
+            if (path.endsWith(".feature")) {
+                if (Files.exists(Paths.get(path))) {
+                    selection.addFeature(path, "changed feature");
+                }
+                continue;
+            }
+            String type = classOf(path);
+            if (type != null) {
+                Set<String> users = usersByClass.get(type);
+                if (users == null) {
+                    return selection.full(type + " is not used by any recorded scenario");
+                }
+                users.forEach(key -> selection.addScenario(key, type));
+            } else if (path.startsWith("src/") || path.equals("pom.xml")) {
+                return selection.full("changed " + path);
+            }
+        }
+        scenarios.forEach((key, entry) -> {
+            if (!entry.passed) {
+                selection.addScenario(key, "failed last time");
+            }
+        });
+        return selection;
+    }
+
+    static String featureOf(String scenarioKey) {
+        int colon = scenarioKey.lastIndexOf(':');
+        return colon > 0 ? scenarioKey.substring(0, colon) : scenarioKey;
+    }
+
+    private static int lineOf(String scenarioKey) {
+        return Integer.parseInt(scenarioKey.substring(scenarioKey.lastIndexOf(':') + 1));
+    }
+
+    private static String classOf(String path) {
+        if (!path.endsWith(".java")) {
+            return null;
+        }
+        for (String root : SOURCE_ROOTS) {
+            if (path.startsWith(root)) {
+                return path.substring(root.length(), path.length() - ".java".length()).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    private static String outerClass(String type) {
+        int dollar = type.indexOf('$');
+        return dollar > 0 ? type.substring(0, dollar) : type;
+    }
+
+    private static String hash(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("Could not hash {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Những gì một scenario đã dùng trong lần chạy gần nhất
+     */
+    public static final class Entry {
+        private final String name;
+        private final Set<String> classes;
+        private final boolean passed;
+
+        public Entry(String name, Set<String> classes, boolean passed) {
+            this.name = name;
+            this.classes = classes;
+            this.passed = passed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Set<String> getClasses() {
+            return classes;
+        }
+
+        public boolean isPassed() {
+            return passed;
+        }
+    }
+
+    /**
+     * Kết quả chọn: chạy toàn bộ, hoặc danh sách feature/scenario (định dạng path hoặc path:line:line)
+     */
+    public static final class Selection {
+        private final Set<String> wholeFeatures = new TreeSet<>();
+        private final Map<String, Set<Integer>> lines = new TreeMap<>();
+        private final List<String> reasons = new ArrayList<>();
+        private String fullRunReason;
+
+        private Selection full(String reason) {
+            fullRunReason = reason;
+            reasons.add("full run: " + reason);
+            return this;
+        }
+
+        private void addFeature(String feature, String reason) {
+            wholeFeatures.add(feature);
+            reasons.add(feature + " <- " + reason);
+        }
+
+        private void addScenario(String scenarioKey, String reason) {
+            String feature = featureOf(scenarioKey);
+            lines.computeIfAbsent(feature, ignored -> new TreeSet<>()).add(lineOf(scenarioKey));
+            reasons.add(scenarioKey + " <- " + reason);
+        }
+
+        public boolean isFullRun() {
+            return fullRunReason != null;
+        }
+
+        public String getFullRunReason() {
+            return fullRunReason;
+        }
+
+        public boolean isEmpty() {
+            return !isFullRun() && wholeFeatures.isEmpty() && lines.isEmpty();
+        }
+
+        /**
+         * Đối số feature cho Cucumber (cùng định dạng với file rerun)
+         */
+        public List<String> getFeatures() {
+            List<String> features = new ArrayList<>(wholeFeatures);
+            lines.forEach((feature, featureLines) -> {
+                if (!wholeFeatures.contains(feature)) {
+                    StringBuilder argument = new StringBuilder(feature);
+                    featureLines.forEach(line -> argument.append(':').append(line));
+                    features.add(argument.toString());
+                }
+            });
+            return features;
+        }
+
+        public List<String> getReasons() {
+            return reasons;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package impact;
+
+import config.ConfigManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Node;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestSourceParsed;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ghi lại mỗi scenario đã chạy những glue method (class step definition, hook) và page/component nào,
+ * rồi gộp vào impact map (impact.mapFile) khi kết thúc lần chạy. ImpactRunner dùng map này
+ * để chỉ chạy các scenario bị ảnh hưởng bởi thay đổi.
+ *
+ * Sử dụng: plugin = "impact.ImpactMapPlugin"
+ */
+public class ImpactMapPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(ImpactMapPlugin.class);
+    // Nhiều lần chạy trong cùng JVM (matrix...) không được ghi đè file của nhau
+    private static final Object FILE_LOCK = new Object();
+
+    private final Map<UUID, Set<String>> running = new ConcurrentHashMap<>();
+    private final Map<String, ImpactMap.Entry> recorded = new ConcurrentHashMap<>();
+    // Mọi dòng scenario (kể cả từng dòng Examples) của feature đã parse, để biết lần chạy có phủ hết feature không
+    private final Map<String, Set<Integer>> scenarioLines = new ConcurrentHashMap<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestSourceParsed.class, this::onTestSourceParsed);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> save());
+    }
+
+    private void onTestSourceParsed(TestSourceParsed event) {
+        String feature = featurePath(event.getUri());
+        if (feature == null) {
+            return;
+        }
+        Set<Integer> lines = new TreeSet<>();
+        event.getNodes().forEach(node -> collectScenarioLines(node, lines));
+        scenarioLines.put(feature, lines);
+    }
+
+    private static void collectScenarioLines(Node node, Set<Integer> lines) {
+        if (node instanceof Node.Scenario || node instanceof Node.Example) {
+            lines.add(node.getLocation().getLine());
+        }
+        if (node instanceof Node.Container) {
+            ((Node.Container<?>) node).elements().forEach(child -> collectScenarioLines(child, lines));
+        }
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        running.put(event.getTestCase().getId(), ConcurrentHashMap.newKeySet());
+        ImpactRecorder.begin();
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        Set<String> classes = running.get(event.getTestCase().getId());
+        String location = event.getTestStep().getCodeLocation();
+        if (classes != null && location != null) {
+            classes.add(glueClass(location));
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        Set<String> classes = running.remove(event.getTestCase().getId());
+        if (classes == null) {
+            return;
+        }
+        // Event được phát trên thread chạy scenario nên lấy được những gì scenario đã khởi tạo
+        classes.addAll(ImpactRecorder.end());
+        TestCase testCase = event.getTestCase();
+        String feature = featurePath(testCase.getUri());
+        if (feature == null) {
+            return;
+        }
+        recorded.put(feature + ":" + testCase.getLocation().getLine(), new ImpactMap.Entry(testCase.getName(),
+                new TreeSet<>(classes), event.getResult().getStatus() == Status.PASSED));
+    }
+
+    private void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        Path file = Paths.get(ConfigManager.getInstance().getImpactMapFile());
+        synchronized (FILE_LOCK) {
+            ImpactMap map = ImpactMap.load(file);
+            map.merge(recorded, scenarioLines);
+            map.save(file);
+            logger.info("Impact map updated with {} scenario(s), {} recorded in total: {}", recorded.size(), map.size(), file);
+        }
+    }
+
+    /**
+     * "stepDefinitions.LoginSteps.enterUsername(java.lang.String)" -> "stepDefinitions.LoginSteps"
+     */
+    private static String glueClass(String codeLocation) {
+        int paren = codeLocation.indexOf('(');
+        String method = paren > 0 ? codeLocation.substring(0, paren) : codeLocation;
+        int dot = method.lastIndexOf('.');
+        return dot > 0 ? method.substring(0, dot) : method;
+    }
+
+    /**
+     * Đường dẫn feature tương đối so với thư mục project, cùng dạng với git diff
+     */
+    private static String featurePath(URI uri) {
+        if ("file".equals(uri.getScheme())) {
+            Path path = Paths.get(uri).toAbsolutePath().normalize();
+            Path projectDir = Paths.get("").toAbsolutePath();
+            return path.startsWith(projectDir) ? projectDir.relativize(path).toString().replace('\\', '/') : null;
+        }
+        if ("classpath".equals(uri.getScheme())) {
+            return "src/test/resources/" + uri.getSchemeSpecificPart().replaceFirst("^/", "");
+        }
+        return null;
+    }
+}
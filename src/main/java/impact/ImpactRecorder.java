@@ -0,0 +1,44 @@
+package impact;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Ghi lại các class page/component mà scenario đang chạy trên thread hiện tại đã khởi tạo
+ * (BasePage/BaseComponent tự gọi touch). Ngoài khoảng begin()..end() thì touch không làm gì.
+ */
+public final class ImpactRecorder {
+    private static final ThreadLocal<Set<String>> CURRENT = new ThreadLocal<>();
+
+    private ImpactRecorder() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new LinkedHashSet<>());
+    }
+
+    /**
+     * Kết thúc ghi và trả về tên các class đã dùng (kèm lớp cha và interface của project)
+     */
+    public static Set<String> end() {
+        Set<String> classes = CURRENT.get();
+        CURRENT.remove();
+        return classes != null ? classes : Collections.emptySet();
+    }
+
+    public static void touch(Class<?> type) {
+        Set<String> classes = CURRENT.get();
+        if (classes == null) {
+            return;
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            classes.add(current.getName());
+            for (Class<?> contract : current.getInterfaces()) {
+                if (!contract.getName().startsWith("java.")) {
+                    classes.add(contract.getName());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package logging;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.log.LogLevel;
+import org.openqa.selenium.bidi.module.LogInspector;
+import org.openqa.selenium.bidi.module.Network;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thu thập console log, lỗi JavaScript và request lỗi của trình duyệt qua sự kiện đẩy về
+ * (WebDriver BiDi, hoặc CDP nếu driver không hỗ trợ BiDi) vào một ring buffer cho mỗi driver.
+ * Không có lệnh polling nào gửi tới trình duyệt; Hooks xoá buffer đầu scenario và đính kèm khi thất bại.
+ */
+public final class BrowserLogCollector implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BrowserLogCollector.class);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    private static final Map<WebDriver, BrowserLogCollector> COLLECTORS = new ConcurrentHashMap<>();
+    private static final BrowserLogCollector DISABLED = new BrowserLogCollector(0);
+
+    private final int capacity;
+    private final Deque<Entry> buffer = new ArrayDeque<>();
+    private final List<AutoCloseable> subscriptions = new ArrayList<>();
+
+    private BrowserLogCollector(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Đăng ký nhận sự kiện log ngay sau khi driver được tạo
+     */
+    public static void attach(WebDriver driver, int capacity) {
+        BrowserLogCollector collector = new BrowserLogCollector(capacity);
+        try {
+            if (driver instanceof HasBiDi && ((HasBiDi) driver).maybeGetBiDi().isPresent()) {
+                collector.subscribeBiDi(driver);
+            } else if (driver instanceof HasDevTools) {
+                collector.subscribeDevTools(((HasDevTools) driver).getDevTools());
+            } else {
+                logger.debug("Driver supports neither BiDi nor CDP, browser logs are not collected");
+                return;
+            }
+            COLLECTORS.put(driver, collector);
+        } catch (RuntimeException e) {
+            logger.warn("Could not subscribe to browser logs: {}", e.getMessage());
+            collector.close();
+        }
+    }
+
+    public static void detach(WebDriver driver) {
+        BrowserLogCollector collector = COLLECTORS.remove(driver);
+        if (collector != null) {
+            collector.close();
+        }
+    }
+
+    /**
+     * Collector của driver, hoặc một collector rỗng nếu driver không thu thập log
+     */
+    public static BrowserLogCollector forDriver(WebDriver driver) {
+        BrowserLogCollector collector = driver == null ? null : COLLECTORS.get(driver);
+        return collector != null ? collector : DISABLED;
+    }
+
+    private void subscribeBiDi(WebDriver driver) {
+        LogInspector logInspector = new LogInspector(driver);
+        subscriptions.add(logInspector);
+        logInspector.onConsoleEntry(entry -> add(levelOf(entry.getLevel()), "console." + entry.getMethod(), entry.getText()));
+        logInspector.onJavaScriptException(entry -> add(Level.ERROR, "exception", entry.getText()));
+
+        Network network = new Network(driver);
+        subscriptions.add(network);
+        network.onFetchError(error -> add(Level.ERROR, "network",
+                error.getRequest().getMethod() + " " + error.getRequest().getUrl() + " " + error.getErrorText()));
+        network.onResponseCompleted(response -> {
+            int status = response.getResponseData().getStatus();
+            if (status >= 400) {
+                add(status >= 500 ? Level.ERROR : Level.WARNING, "network",
+                        response.getRequest().getMethod() + " " + response.getRequest().getUrl() + " " + status);
+            }
+        });
+    }
+
+    private void subscribeDevTools(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        subscriptions.add(devTools::clearListeners);
+        devTools.getDomains().events().addConsoleListener(event -> add(
+                "error".equals(event.getType()) ? Level.ERROR : "warning".equals(event.getType()) ? Level.WARNING : Level.INFO,
+                "console." + event.getType(), String.join(" ", event.getMessages())));
+        devTools.getDomains().events().addJavascriptExceptionListener(exception ->
+                add(Level.ERROR, "exception", exception.getMessage()));
+    }
+
+    private static Level levelOf(LogLevel level) {
+        if (level == LogLevel.ERROR) {
+            return Level.ERROR;
+        }
+        return level == LogLevel.WARNING ? Level.WARNING : Level.INFO;
+    }
+
+    private synchronized void add(Level level, String source, String text) {
+        if (capacity <= 0) {
+            return;
+        }
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+        }
+        buffer.addLast(new Entry(System.currentTimeMillis(), level, source, text));
+    }
+
+    public synchronized void clear() {
+        buffer.clear();
+    }
+
+    public synchronized List<Entry> getErrors() {
+        List<Entry> errors = new ArrayList<>();
+        for (Entry entry : buffer) {
+            if (entry.level == Level.ERROR) {
+                errors.add(entry);
+            }
+        }
+        return errors;
+    }
+
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (Entry entry : buffer) {
+            builder.append(entry).append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void close() {
+        for (AutoCloseable subscription : subscriptions) {
+            try {
+                subscription.close();
+            } catch (Exception e) {
+                logger.debug("Error while closing log subscription: {}", e.getMessage());
+            }
+        }
+        subscriptions.clear();
+    }
+
+    public enum Level {
+        INFO, WARNING, ERROR
+    }
+
+    public static final class Entry {
+        private final long timestamp;
+        private final Level level;
+        private final String source;
+        private final String text;
+
+        private Entry(long timestamp, Level level, String source, String text) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.source = source;
+            this.text = text;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return TIME_FORMAT.format(Instant.ofEpochMilli(timestamp)) + " " + level + " [" + source + "] " + text;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package logging;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Log có cấu trúc cho tầng tương tác với trình duyệt (click, nhập text, chờ...).
+ * Ghi vào logger "interaction" ở mức DEBUG, mặc định chỉ được giữ trong
+ * {@link ScenarioLogBuffer} và in ra khi scenario thất bại.
+ * Khi logger bị tắt thì mỗi lời gọi chỉ tốn một lần kiểm tra level.
+ */
+public final class InteractionLogger {
+    private static final Logger logger = LoggerFactory.getLogger("interaction");
+    private static final int SAMPLE_RATE = Math.max(1, ConfigManager.getInstance().getInteractionSampleRate());
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+    private InteractionLogger() {
+    }
+
+    public static boolean isEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    public static void log(String action, String target) {
+        if (isEnabled() && sampled()) {
+            logger.debug("action={} target={}", action, target);
+        }
+    }
+
+    public static void log(String action, String target, Object detail) {
+        if (isEnabled() && sampled()) {
+            logger.debug("action={} target={} detail={}", action, target, detail);
+        }
+    }
+
+    /**
+     * Chỉ ghi 1 trên mỗi interaction.sampleRate sự kiện của thread hiện tại
+     */
+    private static boolean sampled() {
+        if (SAMPLE_RATE == 1) {
+            return true;
+        }
+        int[] counter = COUNTER.get();
+        return counter[0]++ % SAMPLE_RATE == 0;
+    }
+}
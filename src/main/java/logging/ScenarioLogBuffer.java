@@ -0,0 +1,58 @@
+package logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Logback appender giữ log của scenario đang chạy trên mỗi thread trong một ring buffer.
+ * Hooks lấy nội dung ra khi scenario thất bại và xoá khi scenario kết thúc,
+ * nên log chi tiết không tốn I/O ở những lần chạy thành công.
+ * Buffer là của riêng từng thread nên appender không cần khoá chung (UnsynchronizedAppenderBase).
+ */
+public class ScenarioLogBuffer extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    private static final ThreadLocal<Deque<ILoggingEvent>> BUFFER = ThreadLocal.withInitial(ArrayDeque::new);
+    private static volatile int capacity = 500;
+
+    public void setCapacity(int capacity) {
+        ScenarioLogBuffer.capacity = capacity;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Format message ngay lúc log: tham số có thể đã thay đổi khi dump()
+        event.prepareForDeferredProcessing();
+        Deque<ILoggingEvent> buffer = BUFFER.get();
+        if (buffer.size() >= capacity) {
+            buffer.pollFirst();
+        }
+        buffer.addLast(event);
+    }
+
+    /**
+     * Lấy toàn bộ log đã giữ của thread hiện tại và xoá buffer
+     */
+    public static String dump() {
+        Deque<ILoggingEvent> buffer = BUFFER.get();
+        StringBuilder builder = new StringBuilder();
+        for (ILoggingEvent event : buffer) {
+            builder.append(TIME_FORMAT.format(Instant.ofEpochMilli(event.getTimeStamp())))
+                    .append(' ').append(event.getLevel())
+                    .append(' ').append(event.getFormattedMessage())
+                    .append(System.lineSeparator());
+        }
+        buffer.clear();
+        return builder.toString();
+    }
+
+    public static void clear() {
+        BUFFER.get().clear();
+    }
+}
@@ -2,11 +2,15 @@ package pages;
 
 import base.BasePage;
 import components.ToastNotificationComponent;
+import config.ConfigManager;
+import logging.InteractionLogger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.ToastLog;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -15,18 +19,17 @@ import java.util.List;
 public class LoginPage extends BasePage {
     private static final Logger logger = LoggerFactory.getLogger(LoginPage.class);
 
-    @FindBy(xpath = "//input[@name='username']")
+    @FindBy(css = "input[name='username']")
     private WebElement usernameField;
 
-    @FindBy(xpath = "//input[@name='password']")
+    @FindBy(css = "input[name='password']")
     private WebElement passwordField;
 
     @FindBy(xpath = "//button[@type='submit' and text()='Sign in']")
     private WebElement signInButton;
 
 
-    @FindBy(css = "p.text-red-600")
-    private List<WebElement> errors;
+    private static final By ERRORS = By.cssSelector("p.text-red-600");
 
 
 
@@ -34,22 +37,23 @@ public class LoginPage extends BasePage {
 
     public LoginPage(WebDriver driver) {
         super(driver);
-        this.pageUrl = "https://spring-auth.vercel.app/login";
+        this.pageUrl = ConfigManager.getInstance().getBaseUrl() + "/login";
         this.toastNotificationComponent = new ToastNotificationComponent(driver);
     }
 
     public void enterUsername(String username) {
-        logger.info("Entering username: {}", username);
+        InteractionLogger.log("enter", "LoginPage.username", username);
         setText(usernameField, username);
     }
 
     public void enterPassword(String password) {
-        logger.info("Entering password: ******");
+        InteractionLogger.log("enter", "LoginPage.password", "******");
         setText(passwordField, password);
     }
 
     public void clickSignInButton() {
-        logger.info("Clicking Sign In button");
+        InteractionLogger.log("click", "LoginPage.signInButton");
+        ToastLog.forDriver(driver).mark();
         click(signInButton);
     }
 
@@ -129,9 +133,9 @@ public class LoginPage extends BasePage {
         try {
             logger.debug("Getting form error messages");
             List<String> errorMessages = new ArrayList<>();
-            for (WebElement error : errors) {
-                if (isDisplayed(error)) {
-                    errorMessages.add(getText(error));
+            for (WebElement error : findAllNow(ERRORS)) {
+                if (error.isDisplayed()) {
+                    errorMessages.add(error.getText());
                 }
             }
             logger.debug("Found {} error messages", errorMessages.size());
@@ -160,15 +164,9 @@ public class LoginPage extends BasePage {
         enterPassword(password);
         clickSignInButton();
         
-        try {
-            // Wait a bit for toast to appear
-            Thread.sleep(500);
-            return toastNotificationComponent.isToastDisplayed() && 
-                   toastNotificationComponent.isSuccessToast() &&
-                   toastNotificationComponent.containsMessage("Login successful");
-        } catch (InterruptedException e) {
-            logger.error("Interrupted while waiting for toast: {}", e.getMessage());
-            return false;
-        }
+        // Chờ toast phản hồi cho lần submit này (mốc đặt trong clickSignInButton)
+        return toastNotificationComponent.waitForToast() && 
+               toastNotificationComponent.isSuccessToast() &&
+               toastNotificationComponent.containsMessage("Login successful");
     }
 }
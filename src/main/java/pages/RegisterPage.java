@@ -2,11 +2,15 @@ package pages;
 
 import base.BasePage;
 import components.ToastNotificationComponent;
+import config.ConfigManager;
+import logging.InteractionLogger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.ToastLog;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,46 +18,46 @@ import java.util.List;
 public class RegisterPage extends BasePage {
     private static final Logger logger = LoggerFactory.getLogger(RegisterPage.class);
 
-    @FindBy(xpath = "//input[@name='username']")
+    @FindBy(css = "input[name='username']")
     private WebElement usernameField;
 
-    @FindBy(xpath = "//input[@name='password']")
+    @FindBy(css = "input[name='password']")
     private WebElement passwordField;
 
     @FindBy(xpath = "//button[@type='submit' and text()='Create account']")
     private WebElement registerButton;
 
-    @FindBy(xpath = "//input[@name='email']")
+    @FindBy(css = "input[name='email']")
     private WebElement emailField;
 
-    @FindBy(css = "p.text-red-600")
-    private List<WebElement> errors;
+    private static final By ERRORS = By.cssSelector("p.text-red-600");
 
     private final ToastNotificationComponent toastNotificationComponent;
 
     public RegisterPage(WebDriver driver) {
         super(driver);
-        this.pageUrl = "https://spring-auth.vercel.app/register";
+        this.pageUrl = ConfigManager.getInstance().getBaseUrl() + "/register";
         this.toastNotificationComponent = new ToastNotificationComponent(driver);
     }
 
     public void enterUsername(String username) {
-        logger.info("Entering username: {}", username);
+        InteractionLogger.log("enter", "RegisterPage.username", username);
         setText(usernameField, username);
     }
 
     public void enterPassword(String password) {
-        logger.info("Entering password: ******");
+        InteractionLogger.log("enter", "RegisterPage.password", "******");
         setText(passwordField, password);
     }
 
     public void enterEmail(String email) {
-        logger.info("Entering email: {}", email);
+        InteractionLogger.log("enter", "RegisterPage.email", email);
         setText(emailField, email);
     }
 
     public void clickRegisterButton() {
-        logger.info("Clicking Register button");
+        InteractionLogger.log("click", "RegisterPage.registerButton");
+        ToastLog.forDriver(driver).mark();
         click(registerButton);
     }
 
@@ -137,9 +141,9 @@ public class RegisterPage extends BasePage {
         try {
             logger.debug("Getting form error messages");
             List<String> errorMessages = new ArrayList<>();
-            for (WebElement error : errors) {
-                if (isDisplayed(error)) {
-                    errorMessages.add(getText(error));
+            for (WebElement error : findAllNow(ERRORS)) {
+                if (error.isDisplayed()) {
+                    errorMessages.add(error.getText());
                 }
             }
             logger.debug("Found {} error messages", errorMessages.size());
@@ -169,15 +173,8 @@ public class RegisterPage extends BasePage {
         enterPassword(password);
         clickRegisterButton();
         
-        // Cho phép toast có thời gian xuất hiện
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            logger.error("Interrupted while waiting for toast: {}", e.getMessage());
-        }
-        
-        // Kiểm tra toast message
-        if (toastNotificationComponent.isToastDisplayed()) {
+        // Chờ toast phản hồi cho lần submit này (mốc đặt trong clickRegisterButton)
+        if (toastNotificationComponent.waitForToast()) {
             String message = toastNotificationComponent.getToastMessage();
             boolean isSuccess = toastNotificationComponent.isSuccessToast() && 
                               (message != null && message.contains("Registration successful"));
@@ -0,0 +1,112 @@
+package reporting;
+
+import config.ConfigManager;
+import io.cucumber.java.Scenario;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Đính kèm file lớn (screenshot...) mà không giữ mảng byte trong scenario: file được ghi thẳng vào
+ * resources.attachmentsDir, Allure nhận nội dung đọc dạng stream (báo cáo vẫn có ảnh), còn
+ * StreamingResultsPlugin lấy đường dẫn qua takeFiles() khi scenario kết thúc thay vì chép lại file.
+ * Không đi qua scenario.attach() nên Allure không nhận thêm một bản thứ hai.
+ */
+public final class DiskAttachments {
+    private static final Logger logger = LoggerFactory.getLogger(DiskAttachments.class);
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    // File đã đính kèm của scenario đang chạy trên thread này; scenario mới thay thế danh sách cũ
+    private static final ThreadLocal<Attached> ATTACHED = new ThreadLocal<>();
+
+    private DiskAttachments() {
+    }
+
+    /**
+     * Chụp screenshot ra file (WebDriver ghi file tạm, chuyển vào thư mục attachment) và đính kèm file đó
+     */
+    public static Path attachScreenshot(Scenario scenario, WebDriver driver, String name) throws IOException {
+        Path dir = Paths.get(ConfigManager.getInstance().getResourcesAttachmentsDir());
+        Files.createDirectories(dir);
+        Path file = dir.resolve(scenario.getId() + "-" + COUNTER.incrementAndGet() + ".png");
+        File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
+        Files.move(screenshot.toPath(), file, StandardCopyOption.REPLACE_EXISTING);
+        attachFile(scenario, file, "image/png", name);
+        return file;
+    }
+
+    public static void attachFile(Scenario scenario, Path file, String mediaType, String name) throws IOException {
+        if (Allure.getLifecycle().getCurrentTestCase().isPresent()) {
+            String fileName = file.getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            try (InputStream content = Files.newInputStream(file)) {
+                Allure.addAttachment(name, mediaType, content, dot >= 0 ? fileName.substring(dot + 1) : "");
+            }
+        }
+        Attached attached = ATTACHED.get();
+        if (attached == null || !attached.scenarioId.equals(scenario.getId())) {
+            attached = new Attached(scenario.getId());
+            ATTACHED.set(attached);
+        }
+        attached.files.add(new DiskFile(name, mediaType, file));
+        logger.debug("Attached {} as {}", name, file);
+    }
+
+    /**
+     * Lấy (và xoá) các file đã đính kèm cho scenario; gọi trên thread chạy scenario
+     */
+    static List<DiskFile> takeFiles(String scenarioId) {
+        Attached attached = ATTACHED.get();
+        if (attached == null || !attached.scenarioId.equals(scenarioId)) {
+            return List.of();
+        }
+        ATTACHED.remove();
+        return attached.files;
+    }
+
+    private static final class Attached {
+        private final String scenarioId;
+        private final List<DiskFile> files = new ArrayList<>();
+
+        private Attached(String scenarioId) {
+            this.scenarioId = scenarioId;
+        }
+    }
+
+    static final class DiskFile {
+        private final String name;
+        private final String mediaType;
+        private final Path path;
+
+        private DiskFile(String name, String mediaType, Path path) {
+            this.name = name;
+            this.mediaType = mediaType;
+            this.path = path;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getMediaType() {
+            return mediaType;
+        }
+
+        Path getPath() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package reporting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Số liệu của chế độ load (LoadRunner): số lần lặp, lỗi và thời gian phản hồi của server
+ * quan sát được qua toast/chuyển trang (PageStateSnapshot.getResponseLatencyMs()).
+ * Throughput tính trên thời gian đo thực tế (wall clock). Giữa các lần lặp mỗi virtual user dựng lại Runtime nên
+ * server không luôn chịu đủ N user: báo cáo ghi thêm số scenario chạy đồng thời trung bình (phân vị thời gian phản hồi
+ * đo dưới mức tải đó) và tốc độ nếu chỉ tính thời gian trong scenario (từ Before tới After).
+ * Chỉ ghi khi đang ở chế độ load để lần chạy thường không tốn thêm lệnh nào.
+ */
+public final class LoadMetrics {
+    private static final Queue<Long> LATENCIES = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger PASSED = new AtomicInteger();
+    private static final AtomicInteger FAILED = new AtomicInteger();
+    private static final LongAdder SCENARIO_NANOS = new LongAdder();
+    private static volatile boolean active;
+    private static volatile long startNanos;
+    private static volatile long stopNanos;
+
+    private LoadMetrics() {
+    }
+
+    public static void start() {
+        LATENCIES.clear();
+        PASSED.set(0);
+        FAILED.set(0);
+        SCENARIO_NANOS.reset();
+        startNanos = System.nanoTime();
+        active = true;
+    }
+
+    public static void stop() {
+        stopNanos = System.nanoTime();
+        active = false;
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    public static void record(boolean passed, long scenarioNanos, Long responseLatencyMs) {
+        (passed ? PASSED : FAILED).incrementAndGet();
+        SCENARIO_NANOS.add(scenarioNanos);
+        if (responseLatencyMs != null) {
+            LATENCIES.add(responseLatencyMs);
+        }
+    }
+
+    public static int getIterations() {
+        return PASSED.get() + FAILED.get();
+    }
+
+    /**
+     * Báo cáo dạng markdown: throughput, tỉ lệ lỗi và phân vị thời gian phản hồi
+     */
+    public static List<String> report(int virtualUsers) {
+        int passed = PASSED.get();
+        int failed = FAILED.get();
+        int total = passed + failed;
+        double seconds = Math.max(1e-9, (stopNanos - startNanos) / 1_000_000_000.0);
+        double totalScenarioSeconds = SCENARIO_NANOS.sum() / 1_000_000_000.0;
+        // Thời gian chạy scenario trung bình của một virtual user
+        double scenarioSeconds = Math.max(1e-9, totalScenarioSeconds / Math.max(1, virtualUsers));
+        List<Long> latencies = new ArrayList<>(LATENCIES);
+        Collections.sort(latencies);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("| Metric | Value |");
+        lines.add("|---|---|");
+        lines.add(String.format("| Virtual users | %d |", virtualUsers));
+        lines.add(String.format("| Duration (s) | %.1f |", seconds));
+        lines.add(String.format("| Iterations | %d (passed %d, failed %d) |", total, passed, failed));
+        lines.add(String.format("| Throughput (iterations/s) | %.2f |", total / seconds));
+        lines.add(String.format("| Average concurrent scenarios | %.1f |", totalScenarioSeconds / seconds));
+        lines.add(String.format("| Scenario time per user (s) | %.1f |", scenarioSeconds));
+        lines.add(String.format("| Rate within scenario time, excluding Runtime rebuilds (iterations/s) | %.2f |",
+                total / scenarioSeconds));
+        lines.add(String.format("| Error rate | %.1f%% |", total == 0 ? 0.0 : failed * 100.0 / total));
+        lines.add(String.format("| Response samples | %d |", latencies.size()));
+        for (int percentile : new int[]{50, 90, 95, 99}) {
+            lines.add(String.format("| Response p%d (ms) | %s |", percentile, percentile(latencies, percentile)));
+        }
+        lines.add(String.format("| Response max (ms) | %s |", latencies.isEmpty() ? "-" : latencies.get(latencies.size() - 1)));
+        return lines;
+    }
+
+    private static String percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return "-";
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return String.valueOf(sorted.get(Math.max(0, index)));
+    }
+}
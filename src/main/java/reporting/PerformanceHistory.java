@@ -0,0 +1,219 @@
+package reporting;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lịch sử thời gian chạy theo từng lần chạy, lưu trong một file NDJSON (mỗi dòng một lần chạy:
+ * key -> [số mẫu, trung bình ms]). Key có dạng "step:&lt;pattern&gt;", "hook:&lt;Class.method&gt;", "scenario:&lt;feature/name&gt;".
+ * Mỗi lần chạy ghi kèm môi trường (binding mode, trình duyệt, URL); baseline chỉ lấy các lần chạy cùng môi trường
+ * để đổi trình duyệt hay server không bị báo là chậm đi. So sánh với baseline là trung bình của các lần chạy gần nhất.
+ */
+public final class PerformanceHistory {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceHistory.class);
+    // Độ lệch chuẩn tối thiểu (tỉ lệ so với baseline) để baseline quá ổn định không làm mọi dao động thành "đáng kể"
+    private static final double MIN_RELATIVE_STDDEV = 0.02;
+    private static final double Z_THRESHOLD = 3.0;
+
+    private final Json json = new Json();
+    private final Path file;
+    private final String environment;
+    private final List<String> timestamps = new ArrayList<>();
+    private final List<String> environments = new ArrayList<>();
+    private final List<Map<String, double[]>> runs = new ArrayList<>();
+
+    private PerformanceHistory(Path file, String environment) {
+        this.file = file;
+        this.environment = environment;
+    }
+
+    /**
+     * Môi trường của một lần chạy, vd "browser|chrome|https://example.com" hoặc "api|-|https://example.com"
+     */
+    public static String environment(String bindingMode, String browser, String baseUrl) {
+        return bindingMode + "|" + browser + "|" + baseUrl;
+    }
+
+    /**
+     * Đọc toàn bộ lịch sử; so sánh và lần chạy được thêm vào thuộc môi trường environment
+     */
+    @SuppressWarnings("unchecked")
+    public static PerformanceHistory load(Path file, String environment) {
+        PerformanceHistory history = new PerformanceHistory(file, environment);
+        if (!Files.exists(file)) {
+            return history;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> run = history.json.toType(line, Json.MAP_TYPE);
+                Map<String, double[]> durations = new LinkedHashMap<>();
+                ((Map<String, List<Number>>) run.getOrDefault("durations", Map.of())).forEach((key, value) ->
+                        durations.put(key, new double[]{value.get(0).doubleValue(), value.get(1).doubleValue()}));
+                history.timestamps.add(String.valueOf(run.get("timestamp")));
+                // Lịch sử cũ chưa ghi môi trường: giữ lại nhưng không dùng làm baseline
+                history.environments.add(String.valueOf(run.getOrDefault("environment", "")));
+                history.runs.add(durations);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read performance history {}, starting a new one: {}", file, e.getMessage());
+            history.timestamps.clear();
+            history.environments.clear();
+            history.runs.clear();
+        }
+        return history;
+    }
+
+    /**
+     * Số lần chạy đã lưu cùng môi trường
+     */
+    public int size() {
+        return (int) environments.stream().filter(environment::equals).count();
+    }
+
+    /**
+     * So sánh lần chạy hiện tại với baseline (trung bình của tối đa baselineRuns lần chạy gần nhất cùng môi trường có key đó).
+     * Bị đánh dấu chậm đi khi: có ít nhất minRuns lần trong baseline, chậm hơn ít nhất thresholdPercent %
+     * và minDeltaMs ms, và lệch hơn 3 độ lệch chuẩn giữa các lần chạy của baseline.
+     */
+    public List<Regression> findRegressions(Map<String, double[]> current, int baselineRuns, int minRuns,
+                                            int thresholdPercent, int minDeltaMs) {
+        List<Regression> regressions = new ArrayList<>();
+        current.forEach((key, value) -> {
+            List<Double> baseline = baseline(key, baselineRuns);
+            if (baseline.size() < minRuns) {
+                return;
+            }
+            double mean = baseline.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+            double variance = baseline.stream().mapToDouble(sample -> (sample - mean) * (sample - mean)).sum()
+                    / Math.max(1, baseline.size() - 1);
+            double stddev = Math.max(Math.sqrt(variance), mean * MIN_RELATIVE_STDDEV);
+            double now = value[1];
+            double z = stddev > 0 ? (now - mean) / stddev : 0;
+            if (now - mean >= minDeltaMs && now >= mean * (1 + thresholdPercent / 100.0) && z >= Z_THRESHOLD) {
+                regressions.add(new Regression(key, mean, now, z));
+            }
+        });
+        regressions.sort(Comparator.comparingDouble(Regression::getChangePercent).reversed());
+        return regressions;
+    }
+
+    /**
+     * Trung bình baseline của key, null nếu chưa có lần chạy nào
+     */
+    public Double baselineMean(String key, int baselineRuns) {
+        List<Double> baseline = baseline(key, baselineRuns);
+        return baseline.isEmpty() ? null : baseline.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+    }
+
+    /**
+     * Thêm lần chạy hiện tại và ghi lại file, giữ maxRuns lần gần nhất của mỗi môi trường
+     */
+    public void append(String timestamp, Map<String, double[]> current, int maxRuns) {
+        timestamps.add(timestamp);
+        environments.add(environment);
+        runs.add(current);
+        Map<String, Integer> kept = new HashMap<>();
+        for (int i = runs.size() - 1; i >= 0; i--) {
+            if (kept.merge(environments.get(i), 1, Integer::sum) > maxRuns) {
+                timestamps.remove(i);
+                environments.remove(i);
+                runs.remove(i);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < runs.size(); i++) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("timestamp", timestamps.get(i));
+            run.put("environment", environments.get(i));
+            Map<String, Object> durations = new LinkedHashMap<>();
+            runs.get(i).forEach((key, value) -> durations.put(key, List.of((long) value[0], Math.round(value[1] * 10) / 10.0)));
+            run.put("durations", durations);
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput output = json.newOutput(line)) {
+                output.setPrettyPrint(false).write(run);
+            }
+            lines.add(line.toString());
+        }
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write performance history " + file, e);
+        }
+    }
+
+    private List<Double> baseline(String key, int baselineRuns) {
+        List<Double> baseline = new ArrayList<>();
+        for (int i = runs.size() - 1; i >= 0 && baseline.size() < baselineRuns; i--) {
+            if (!environment.equals(environments.get(i))) {
+                continue;
+            }
+            double[] value = runs.get(i).get(key);
+            if (value != null) {
+                baseline.add(value[1]);
+            }
+        }
+        return baseline;
+    }
+
+    /**
+     * Một key chậm đi đáng kể so với baseline
+     */
+    public static final class Regression {
+        private final String key;
+        private final double baselineMs;
+        private final double currentMs;
+        private final double zScore;
+
+        Regression(String key, double baselineMs, double currentMs, double zScore) {
+            this.key = key;
+            this.baselineMs = baselineMs;
+            this.currentMs = currentMs;
+            this.zScore = zScore;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public double getBaselineMs() {
+            return baselineMs;
+        }
+
+        public double getCurrentMs() {
+            return currentMs;
+        }
+
+        public double getZScore() {
+            return zScore;
+        }
+
+        public double getChangePercent() {
+            return baselineMs > 0 ? (currentMs - baselineMs) * 100 / baselineMs : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.0f ms -> %.0f ms (+%.0f%%, z=%.1f)", key, baselineMs, currentMs, getChangePercent(), zScore);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package reporting;
+
+import config.ConfigManager;
+import driver.BrowserContext;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lưu thời gian của từng step, hook và scenario (chỉ lần chạy PASSED) vào lịch sử (perf.historyFile)
+ * và so với baseline của các lần chạy trước cùng binding mode, trình duyệt và URL. Step chậm đi đáng kể được liệt kê trong
+ * performance-trend.md của thư mục output và log WARN. Step đo cả app lẫn framework,
+ * hook (khởi tạo/dọn trình duyệt...) là chi phí của riêng framework.
+ *
+ * Sử dụng: plugin = "reporting.PerformanceTrendPlugin:target/cucumber-reports"
+ */
+public class PerformanceTrendPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(PerformanceTrendPlugin.class);
+    private static final String REPORT_FILE = "performance-trend.md";
+    private static final int SLOWEST_STEPS = 10;
+
+    private final Path outputDir;
+    private final Map<String, Queue<Double>> samples = new ConcurrentHashMap<>();
+
+    public PerformanceTrendPlugin(String outputDir) {
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (event.getResult().getStatus() != Status.PASSED) {
+            return;
+        }
+        String key;
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            key = "step:" + ((PickleStepTestStep) event.getTestStep()).getPattern();
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            key = "hook:" + shortLocation(event.getTestStep().getCodeLocation());
+        } else {
+            return;
+        }
+        record(key, event.getResult().getDuration().toNanos());
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        if (event.getResult().getStatus() != Status.PASSED) {
+            return;
+        }
+        String uri = event.getTestCase().getUri().toString();
+        String feature = uri.substring(uri.lastIndexOf('/') + 1);
+        record("scenario:" + feature + "/" + event.getTestCase().getName(), event.getResult().getDuration().toNanos());
+    }
+
+    private void record(String key, long nanos) {
+        samples.computeIfAbsent(key, ignored -> new ConcurrentLinkedQueue<>()).add(nanos / 1_000_000.0);
+    }
+
+    private void onRunFinished(TestRunFinished event) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        Map<String, double[]> current = new TreeMap<>();
+        samples.forEach((key, values) -> current.put(key, new double[]{values.size(),
+                values.stream().mapToDouble(Double::doubleValue).average().orElse(0)}));
+
+        PerformanceHistory history = PerformanceHistory.load(Paths.get(config.getPerfHistoryFile()), environment(config));
+        List<PerformanceHistory.Regression> regressions = history.findRegressions(current, config.getPerfBaselineRuns(),
+                config.getPerfMinBaselineRuns(), config.getPerfRegressionPercent(), config.getPerfMinDeltaMs());
+        regressions.forEach(regression -> logger.warn("Performance regression: {}", regression));
+        writeReport(history, current, regressions);
+        history.append(event.getInstant().toString(), current, config.getPerfHistoryRuns());
+    }
+
+    private void writeReport(PerformanceHistory history, Map<String, double[]> current,
+                             List<PerformanceHistory.Regression> regressions) {
+        int baselineRuns = ConfigManager.getInstance().getPerfBaselineRuns();
+        List<String> lines = new ArrayList<>();
+        lines.add("# Performance trend");
+        lines.add("");
+        lines.add(String.format("Environment: %s", environment(ConfigManager.getInstance())));
+        lines.add(String.format("Baseline: up to %d previous runs (%d in history for this environment)",
+                baselineRuns, history.size()));
+        lines.add("");
+        lines.add("## Regressions");
+        if (regressions.isEmpty()) {
+            lines.add("None");
+        } else {
+            lines.add("| Key | Baseline (ms) | Now (ms) | Change | z |");
+            lines.add("|---|---|---|---|---|");
+            for (PerformanceHistory.Regression regression : regressions) {
+                lines.add(String.format("| %s | %.0f | %.0f | +%.0f%% | %.1f |", regression.getKey(),
+                        regression.getBaselineMs(), regression.getCurrentMs(), regression.getChangePercent(), regression.getZScore()));
+            }
+        }
+        lines.add("");
+        lines.add("## Slowest steps");
+        lines.add("| Key | Samples | Now (ms) | Baseline (ms) |");
+        lines.add("|---|---|---|---|");
+        current.entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith("scenario:"))
+                .sorted(Comparator.comparingDouble((Map.Entry<String, double[]> entry) -> entry.getValue()[1]).reversed())
+                .limit(SLOWEST_STEPS)
+                .forEach(entry -> {
+                    Double baseline = history.baselineMean(entry.getKey(), baselineRuns);
+                    lines.add(String.format("| %s | %d | %.0f | %s |", entry.getKey(), (long) entry.getValue()[0],
+                            entry.getValue()[1], baseline == null ? "-" : String.format("%.0f", baseline)));
+                });
+        try {
+            Files.createDirectories(outputDir);
+            Files.write(outputDir.resolve(REPORT_FILE), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to write performance trend report: {}", e.getMessage());
+        }
+    }
+
+    private static String environment(ConfigManager config) {
+        if (config.isApiMode()) {
+            String apiBaseUrl = config.getApiBaseUrl();
+            return PerformanceHistory.environment("api", "-",
+                    apiBaseUrl == null || apiBaseUrl.isEmpty() ? config.getBaseUrl() : apiBaseUrl);
+        }
+        return PerformanceHistory.environment("browser", BrowserContext.current().getLabel(), config.getBaseUrl());
+    }
+
+    /**
+     * "hooks.Hooks.setUp(io.cucumber.java.Scenario)" -> "Hooks.setUp"
+     */
+    private static String shortLocation(String codeLocation) {
+        int paren = codeLocation.indexOf('(');
+        String method = paren > 0 ? codeLocation.substring(0, paren) : codeLocation;
+        int classDot = method.lastIndexOf('.', method.lastIndexOf('.') - 1);
+        return classDot >= 0 ? method.substring(classDot + 1) : method;
+    }
+}
@@ -0,0 +1,194 @@
+package reporting;
+
+import com.sun.net.httpserver.HttpServer;
+import config.ConfigManager;
+import driver.DriverPool;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Theo dõi tiến độ khi đang chạy: in định kỳ một dòng trạng thái ra log
+ * và (tuỳ chọn) phục vụ JSON tại http://localhost:{progress.port}/progress.
+ */
+public class ProgressPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressPlugin.class);
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicLong stepCount = new AtomicLong();
+    private final AtomicLong stepNanos = new AtomicLong();
+    private final Map<UUID, InFlightStep> inFlightSteps = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> activeScenarios = new ConcurrentHashMap<>();
+
+    private volatile long runStartNanos;
+    private ScheduledExecutorService scheduler;
+    private HttpServer server;
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, event -> start());
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepStarted.class, this::onTestStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> stop());
+    }
+
+    private void start() {
+        runStartNanos = System.nanoTime();
+        ConfigManager config = ConfigManager.getInstance();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int interval = config.getProgressIntervalSeconds();
+        if (interval > 0) {
+            scheduler.scheduleAtFixedRate(() -> logger.info("Progress: {}", formatLine()),
+                    interval, interval, TimeUnit.SECONDS);
+        }
+
+        if (config.getProgressPort() > 0) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", config.getProgressPort()), 0);
+                server.createContext("/progress", exchange -> {
+                    byte[] body = new Json().toJson(snapshot()).getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.setExecutor(scheduler);
+                server.start();
+                logger.info("Progress endpoint listening on http://localhost:{}/progress", config.getProgressPort());
+            } catch (IOException e) {
+                logger.warn("Could not start progress endpoint: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void stop() {
+        logger.info("Final progress: {}", formatLine());
+        if (server != null) {
+            server.stop(0);
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        activeScenarios.put(event.getTestCase().getId(), System.nanoTime());
+    }
+
+    private void onTestStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            String text = ((PickleStepTestStep) event.getTestStep()).getStep().getText();
+            inFlightSteps.put(event.getTestCase().getId(), new InFlightStep(text, System.nanoTime()));
+        }
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            inFlightSteps.remove(event.getTestCase().getId());
+            stepCount.incrementAndGet();
+            stepNanos.addAndGet(event.getResult().getDuration().toNanos());
+        }
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        UUID id = event.getTestCase().getId();
+        activeScenarios.remove(id);
+        inFlightSteps.remove(id);
+        Status status = event.getResult().getStatus();
+        if (status == Status.PASSED) {
+            passed.incrementAndGet();
+        } else if (status == Status.SKIPPED) {
+            skipped.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    private Map<String, Object> snapshot() {
+        long now = System.nanoTime();
+        int finished = passed.get() + failed.get() + skipped.get();
+        double elapsedMinutes = Math.max(1e-9, (now - runStartNanos) / 60_000_000_000.0);
+        long steps = stepCount.get();
+
+        InFlightStep slowest = null;
+        for (InFlightStep step : inFlightSteps.values()) {
+            if (slowest == null || step.startNanos < slowest.startNanos) {
+                slowest = step;
+            }
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("elapsedSeconds", Duration.ofNanos(now - runStartNanos).getSeconds());
+        snapshot.put("finished", finished);
+        snapshot.put("passed", passed.get());
+        snapshot.put("failed", failed.get());
+        snapshot.put("skipped", skipped.get());
+        snapshot.put("scenariosPerMinute", Math.round(finished / elapsedMinutes * 10) / 10.0);
+        snapshot.put("activeScenarios", activeScenarios.size());
+        snapshot.put("activeBrowsers", DriverPool.activeBrowsers());
+        snapshot.put("avgStepMs", steps == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(stepNanos.get() / steps));
+        if (slowest != null) {
+            snapshot.put("slowestInFlightStep", slowest.text);
+            snapshot.put("slowestInFlightMs", TimeUnit.NANOSECONDS.toMillis(now - slowest.startNanos));
+        }
+        return snapshot;
+    }
+
+    private String formatLine() {
+        Map<String, Object> snapshot = snapshot();
+        StringBuilder line = new StringBuilder(String.format("%ss | done=%s (pass=%s fail=%s skip=%s) | %s/min | browsers=%s | avgStep=%sms",
+                snapshot.get("elapsedSeconds"), snapshot.get("finished"), snapshot.get("passed"),
+                snapshot.get("failed"), snapshot.get("skipped"), snapshot.get("scenariosPerMinute"),
+                snapshot.get("activeBrowsers"), snapshot.get("avgStepMs")));
+        if (snapshot.containsKey("slowestInFlightStep")) {
+            line.append(String.format(" | slowest='%s' %sms",
+                    snapshot.get("slowestInFlightStep"), snapshot.get("slowestInFlightMs")));
+        }
+        return line.toString();
+    }
+
+    private static class InFlightStep {
+        private final String text;
+        private final long startNanos;
+
+        private InFlightStep(String text, long startNanos) {
+            this.text = text;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package reporting;
+
+import driver.ResourceGovernor;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi nhận bộ nhớ của từng worker sau mỗi scenario và cuối lần chạy ghi resource-usage.md vào thư mục output:
+ * RSS trình duyệt lớn nhất, heap đã cấp phát theo worker, đỉnh heap của JVM, số trình duyệt bị thay vì quá ngưỡng.
+ *
+ * Sử dụng: plugin = "reporting.ResourceUsagePlugin:target/cucumber-reports"
+ */
+public class ResourceUsagePlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(ResourceUsagePlugin.class);
+    private static final String REPORT_FILE = "resource-usage.md";
+    private static final long MB = 1024L * 1024L;
+
+    private final Path outputDir;
+
+    public ResourceUsagePlugin(String outputDir) {
+        this.outputDir = Paths.get(outputDir);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        // TestCaseFinished chạy trên thread của scenario nên được tính cho đúng worker
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> ResourceGovernor.sampleWorker());
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+
+    private void onRunFinished(TestRunFinished event) {
+        Map<String, ResourceGovernor.WorkerUsage> workers = ResourceGovernor.getWorkerUsage();
+        logger.info("Resources {}", ResourceGovernor.getStats());
+        List<String> lines = new ArrayList<>();
+        lines.add("# Resource usage");
+        lines.add("");
+        lines.add("Totals: " + ResourceGovernor.getStats());
+        lines.add("");
+        lines.add("| Worker | Scenarios | Peak browser RSS (MB) | Heap allocated (MB) |");
+        lines.add("|---|---|---|---|");
+        workers.forEach((worker, usage) -> {
+            logger.info("Worker {}: {} scenario(s), peak browser RSS {} MB, heap allocated {} MB", worker,
+                    usage.getScenarios(), usage.getPeakBrowserRssBytes() / MB, usage.getAllocatedBytes() / MB);
+            lines.add(String.format("| %s | %d | %s | %s |", worker, usage.getScenarios(),
+                    usage.getPeakBrowserRssBytes() > 0 ? String.valueOf(usage.getPeakBrowserRssBytes() / MB) : "-",
+                    usage.getAllocatedBytes() >= 0 ? String.valueOf(usage.getAllocatedBytes() / MB) : "-"));
+        });
+        try {
+            Files.createDirectories(outputDir);
+            Files.write(outputDir.resolve(REPORT_FILE), lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to write resource usage report: {}", e.getMessage());
+        }
+    }
+}
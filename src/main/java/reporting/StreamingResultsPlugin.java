@@ -0,0 +1,269 @@
+package reporting;
+
+import driver.BrowserContext;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EmbedEvent;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Result;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestRunStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.TaskExecutors;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plugin ghi kết quả dạng NDJSON: mỗi scenario là một dòng, được ghi ngay khi scenario kết thúc.
+ * Attachment (screenshot...) được ghi ra file riêng và chỉ tham chiếu bằng đường dẫn,
+ * nên bộ nhớ không tăng theo độ dài lần chạy và kết quả vẫn còn nếu JVM bị kill giữa chừng.
+ *
+ * Sử dụng: plugin = "reporting.StreamingResultsPlugin:target/cucumber-reports"
+ */
+public class StreamingResultsPlugin implements ConcurrentEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(StreamingResultsPlugin.class);
+    private static final String RESULTS_FILE = "results.ndjson";
+    private static final String ATTACHMENTS_DIR = "attachments";
+    // Tổng byte attachment tối đa được giữ chờ ghi nền
+    private static final long MAX_PENDING_BYTES = 16L * 1024 * 1024;
+
+    private final Json json = new Json();
+    private final Path outputDir;
+    private final Path attachmentsDir;
+    private final Map<UUID, ScenarioRecord> running = new ConcurrentHashMap<>();
+    private final Queue<Future<?>> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private BufferedWriter writer;
+
+    public StreamingResultsPlugin(String outputDir) {
+        this.outputDir = Paths.get(outputDir);
+        this.attachmentsDir = this.outputDir.resolve(ATTACHMENTS_DIR);
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestRunStarted.class, this::onRunStarted);
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onTestCaseStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(EmbedEvent.class, this::onEmbed);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+
+    private void onRunStarted(TestRunStarted event) {
+        try {
+            Files.createDirectories(attachmentsDir);
+            writer = Files.newBufferedWriter(outputDir.resolve(RESULTS_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open results file in " + outputDir, e);
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("event", "run_started");
+        line.put("timestamp", event.getInstant().toString());
+        writeLine(line);
+    }
+
+    private void onTestCaseStarted(TestCaseStarted event) {
+        running.put(event.getTestCase().getId(), new ScenarioRecord(event.getInstant().toString()));
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        ScenarioRecord record = running.get(event.getTestCase().getId());
+        if (record == null) {
+            return;
+        }
+        Map<String, Object> step = new LinkedHashMap<>();
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) event.getTestStep();
+            step.put("type", "step");
+            step.put("text", pickleStep.getStep().getKeyword() + pickleStep.getStep().getText());
+            step.put("line", pickleStep.getStep().getLine());
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            step.put("type", "hook");
+            step.put("text", ((HookTestStep) event.getTestStep()).getHookType().name());
+        }
+        step.put("location", event.getTestStep().getCodeLocation());
+        putResult(step, event.getResult());
+        record.steps.add(step);
+    }
+
+    private void onEmbed(EmbedEvent event) {
+        ScenarioRecord record = running.get(event.getTestCase().getId());
+        if (record == null) {
+            return;
+        }
+        Map<String, Object> attachment = new LinkedHashMap<>();
+        attachment.put("name", event.getName());
+        attachment.put("mediaType", event.getMediaType());
+        String fileName = event.getTestCase().getId() + "-" + record.attachmentCounter.incrementAndGet()
+                + extensionFor(event.getMediaType());
+        Path file = attachmentsDir.resolve(fileName);
+        byte[] data = event.getData();
+        if (pendingBytes.addAndGet(data.length) > MAX_PENDING_BYTES) {
+            // Hàng đợi ghi nền đã giữ quá nhiều byte: ghi ngay trên thread này để heap không phình ra
+            writeAttachment(file, data);
+        } else {
+            // Ghi file ở nền để step không phải chờ I/O, run_finished chờ các lần ghi này xong
+            pendingWrites.add(TaskExecutors.background().submit(() -> writeAttachment(file, data)));
+        }
+        attachment.put("path", ATTACHMENTS_DIR + "/" + fileName);
+        record.attachments.add(attachment);
+    }
+
+    private void writeAttachment(Path file, byte[] data) {
+        try {
+            Files.write(file, data);
+        } catch (IOException e) {
+            logger.error("Failed to write attachment {}: {}", file, e.getMessage());
+        } finally {
+            pendingBytes.addAndGet(-data.length);
+        }
+    }
+
+    /**
+     * Đường dẫn tương đối so với thư mục output nếu file nằm trong đó, ngược lại đường dẫn tuyệt đối
+     */
+    private String relativePath(Path path) {
+        Path file = path.toAbsolutePath();
+        Path base = outputDir.toAbsolutePath();
+        return (file.startsWith(base) ? base.relativize(file) : file).toString().replace('\\', '/');
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        ScenarioRecord record = running.remove(event.getTestCase().getId());
+        if (record == null) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("event", "scenario_finished");
+        line.put("id", testCase.getId().toString());
+        line.put("name", testCase.getName());
+        line.put("uri", testCase.getUri().toString());
+        line.put("line", testCase.getLocation().getLine());
+        line.put("tags", testCase.getTags());
+        line.put("startedAt", record.startedAt);
+        line.put("browser", BrowserContext.current().getLabel());
+        line.put("thread", Thread.currentThread().getName());
+        putResult(line, event.getResult());
+        // File đã nằm trên đĩa (DiskAttachments), chỉ ghi đường dẫn
+        for (DiskAttachments.DiskFile file : DiskAttachments.takeFiles(testCase.getId().toString())) {
+            Map<String, Object> attachment = new LinkedHashMap<>();
+            attachment.put("name", file.getName());
+            attachment.put("mediaType", file.getMediaType());
+            attachment.put("path", relativePath(file.getPath()));
+            record.attachments.add(attachment);
+        }
+        line.put("steps", record.steps);
+        line.put("attachments", record.attachments);
+        writeLine(line);
+    }
+
+    private void onRunFinished(TestRunFinished event) {
+        awaitPendingWrites();
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("event", "run_finished");
+        line.put("timestamp", event.getInstant().toString());
+        putResult(line, event.getResult());
+        writeLine(line);
+        synchronized (this) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.error("Failed to close results file: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void awaitPendingWrites() {
+        Future<?> write;
+        while ((write = pendingWrites.poll()) != null) {
+            try {
+                write.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.error("Attachment write failed: {}", e.getCause().getMessage());
+            }
+        }
+    }
+
+    private static void putResult(Map<String, Object> target, Result result) {
+        target.put("status", result.getStatus().name());
+        target.put("durationMs", result.getDuration().toMillis());
+        if (result.getError() != null) {
+            target.put("error", String.valueOf(result.getError()));
+        }
+    }
+
+    /**
+     * Ghi một dòng và flush ngay để kết quả không bị mất khi JVM dừng đột ngột
+     */
+    private synchronized void writeLine(Map<String, Object> line) {
+        StringBuilder builder = new StringBuilder();
+        json.newOutput(builder).setPrettyPrint(false).write(line);
+        try {
+            writer.write(builder.toString());
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Failed to write result line: {}", e.getMessage());
+        }
+    }
+
+    private static String extensionFor(String mediaType) {
+        switch (mediaType) {
+            case "image/png":
+                return ".png";
+            case "image/jpeg":
+                return ".jpg";
+            case "text/plain":
+                return ".txt";
+            case "text/html":
+                return ".html";
+            case "application/json":
+                return ".json";
+            default:
+                return ".bin";
+        }
+    }
+
+    private static class ScenarioRecord {
+        private final String startedAt;
+        private final List<Map<String, Object>> steps = new ArrayList<>();
+        private final List<Map<String, Object>> attachments = new ArrayList<>();
+        private final AtomicInteger attachmentCounter = new AtomicInteger();
+
+        private ScenarioRecord(String startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package utils;
 
+import config.ConfigManager;
+import logging.InteractionLogger;
+import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -10,52 +15,90 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class ElementHelper {
     private static final Logger logger = LoggerFactory.getLogger(ElementHelper.class);
+    // arguments[0]: node gốc để evaluate (null = document), còn lại là các XPath
+    private static final String ARE_DISPLAYED_SCRIPT =
+            "var root = arguments[0] || document;"
+            + "return Array.prototype.slice.call(arguments, 1).every(function(xpath) {"
+            + "  var el = document.evaluate(xpath, root, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  return !!el && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length);"
+            + "});";
     private final WebDriver driver;
+    private final String owner;
+    private final ElementPath scope;
     public final WebDriverWait wait;
     
     public ElementHelper(WebDriver driver, int timeoutInSeconds) {
+        this(driver, timeoutInSeconds, "element");
+    }
+
+    public ElementHelper(WebDriver driver, int timeoutInSeconds, String owner) {
+        this(driver, timeoutInSeconds, owner, ElementPath.top());
+    }
+
+    /**
+     * @param scope vùng (frame/shadow root/element chứa) mà các thao tác của helper này thuộc về
+     */
+    public ElementHelper(WebDriver driver, int timeoutInSeconds, String owner, ElementPath scope) {
         this.driver = driver;
+        this.owner = owner;
+        this.scope = scope;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
     }
+
+    /**
+     * Đưa driver về frame của scope trước khi thao tác (không gửi lệnh nào nếu đã ở đúng frame)
+     */
+    private void enterScope() {
+        ElementResolver.forDriver(driver).enterFrame(scope);
+    }
+
+    private SearchContext searchContext() {
+        return ElementResolver.forDriver(driver).context(scope);
+    }
     
     public WebElement waitForVisibility(WebElement element) {
-        logger.debug("Waiting for element to be visible: {}", element);
+        InteractionLogger.log("waitVisible", owner);
+        enterScope();
         return wait.until(ExpectedConditions.visibilityOf(element));
     }
     
     public List<WebElement> waitForVisibilityOfAllElements(List<WebElement> elements) {
-        logger.debug("Waiting for all elements to be visible");
+        InteractionLogger.log("waitAllVisible", owner);
+        enterScope();
         return wait.until(ExpectedConditions.visibilityOfAllElements(elements));
     }
     
     public WebElement waitForClickable(WebElement element) {
-        logger.debug("Waiting for element to be clickable: {}", element);
+        InteractionLogger.log("waitClickable", owner);
+        enterScope();
         return wait.until(ExpectedConditions.elementToBeClickable(element));
     }
     
     public void click(WebElement element) {
-        logger.debug("Clicking on element: {}", element);
+        InteractionLogger.log("click", owner);
         waitForClickable(element).click();
     }
     
     public void javascriptClick(WebElement element) {
-        logger.debug("JavaScript clicking on element: {}", element);
+        InteractionLogger.log("jsClick", owner);
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].click();", waitForVisibility(element));
     }
     
     public void setText(WebElement element, String text) {
-        logger.debug("Setting text '{}' on element: {}", text, element);
+        // Chỉ ghi độ dài: giá trị có thể là mật khẩu và interaction log được đính kèm vào báo cáo khi fail
+        InteractionLogger.log("setText", owner, (text == null ? 0 : text.length()) + " chars");
         WebElement visibleElement = waitForVisibility(element);
         visibleElement.clear();
         visibleElement.sendKeys(text);
     }
     
     public String getText(WebElement element) {
-        logger.debug("Getting text from element: {}", element);
+        InteractionLogger.log("getText", owner);
         return waitForVisibility(element).getText();
     }
     
@@ -65,6 +108,7 @@ public class ElementHelper {
      */
     public String getTextWithoutWait(WebElement element) {
         try {
+            enterScope();
             return element.getText();
         } catch (Exception e) {
             return null;
@@ -77,28 +121,100 @@ public class ElementHelper {
      */
     public boolean isDisplayedWithoutWait(WebElement element) {
         try {
+            enterScope();
             return element.isDisplayed();
         } catch (Exception e) {
             return false;
         }
     }
     
+    /**
+     * Chờ tối đa timeout cho đến khi element hiển thị - dùng cho kiểm tra khẳng định
+     */
     public boolean isDisplayed(WebElement element) {
         try {
-            logger.debug("Checking if element is displayed: {}", element);
+            InteractionLogger.log("isDisplayed", owner);
             return waitForVisibility(element).isDisplayed();
         } catch (Exception e) {
-            logger.debug("Element is not displayed: {}", e.getMessage());
+            InteractionLogger.log("notDisplayed", owner, e.getClass().getSimpleName());
             return false;
         }
     }
     
     public boolean isEnabled(WebElement element) {
         try {
-            logger.debug("Checking if element is enabled: {}", element);
+            InteractionLogger.log("isEnabled", owner);
             return waitForVisibility(element).isEnabled();
         } catch (Exception e) {
-            logger.debug("Element is not enabled: {}", e.getMessage());
+            InteractionLogger.log("notEnabled", owner, e.getClass().getSimpleName());
+            return false;
+        }
+    }
+
+    /**
+     * Chạy action với implicit wait = 0 rồi khôi phục giá trị cấu hình,
+     * để findElements trả về ngay khi không có element
+     */
+    public <T> T withoutImplicitWait(Supplier<T> action) {
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigManager.getInstance().getImplicitWait()));
+        }
+    }
+
+    /**
+     * Tìm tất cả element trong scope ngay lập tức, không chờ
+     */
+    public List<WebElement> findAllNow(By locator) {
+        InteractionLogger.log("findAllNow", owner, locator);
+        return withoutImplicitWait(() -> searchContext().findElements(locator));
+    }
+
+    public boolean isPresentNow(By locator) {
+        return !findAllNow(locator).isEmpty();
+    }
+
+    /**
+     * Kiểm tra ngay element đầu tiên khớp locator có hiển thị không - dùng cho kiểm tra phủ định
+     */
+    public boolean isDisplayedNow(By locator) {
+        try {
+            List<WebElement> elements = findAllNow(locator);
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
+        } catch (Exception e) {
+            InteractionLogger.log("notDisplayed", owner, e.getClass().getSimpleName());
+            return false;
+        }
+    }
+
+    /**
+     * Kiểm tra nhiều XPath cùng lúc chỉ với một lần gọi JavaScript.
+     * Với scope là element chứa, XPath tương đối (".//...") được evaluate từ element đó.
+     */
+    public boolean areDisplayedNow(String... xpaths) {
+        InteractionLogger.log("areDisplayedNow", owner, xpaths.length);
+        Object[] args = new Object[xpaths.length + 1];
+        if (scope.isTop()) {
+            enterScope();
+        } else {
+            SearchContext context = withoutImplicitWait(this::searchContext);
+            args[0] = context instanceof WebElement ? context : null;
+        }
+        System.arraycopy(xpaths, 0, args, 1, xpaths.length);
+        Object result = ((JavascriptExecutor) driver).executeScript(ARE_DISPLAYED_SCRIPT, args);
+        return Boolean.TRUE.equals(result);
+    }
+
+    /**
+     * Chờ tối đa timeout cho đến khi tất cả XPath đều hiển thị
+     */
+    public boolean waitUntilDisplayed(String... xpaths) {
+        try {
+            return wait.until(webDriver -> areDisplayedNow(xpaths));
+        } catch (TimeoutException e) {
+            InteractionLogger.log("notDisplayed", owner, e.getClass().getSimpleName());
             return false;
         }
     }
@@ -0,0 +1,138 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Đường dẫn tới một vùng tìm kiếm qua iframe, shadow root và element chứa, vd:
+ * <pre>
+ * ElementPath.top().frame(By.id("auth-frame")).shadow(By.cssSelector("toast-stack"))
+ * </pre>
+ * Bất biến, dùng được làm key cache. Trong shadow root chỉ tìm được bằng CSS selector.
+ */
+public final class ElementPath {
+    private static final ElementPath TOP = new ElementPath(Collections.emptyList());
+
+    private final List<Segment> segments;
+
+    private ElementPath(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Document cấp cao nhất của trang
+     */
+    public static ElementPath top() {
+        return TOP;
+    }
+
+    /**
+     * Đi vào iframe/frame khớp locator
+     */
+    public ElementPath frame(By frame) {
+        return append(new Segment(Type.FRAME, frame));
+    }
+
+    /**
+     * Đi vào shadow root của host element khớp locator
+     */
+    public ElementPath shadow(By host) {
+        return append(new Segment(Type.SHADOW, host));
+    }
+
+    /**
+     * Giới hạn tìm kiếm trong element khớp locator
+     */
+    public ElementPath within(By container) {
+        return append(new Segment(Type.ELEMENT, container));
+    }
+
+    public boolean isTop() {
+        return segments.isEmpty();
+    }
+
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * Phần đường dẫn tới frame sâu nhất (context mà driver cần switchTo)
+     */
+    ElementPath frameContext() {
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            if (segments.get(i).type == Type.FRAME) {
+                return i == segments.size() - 1 ? this : new ElementPath(segments.subList(0, i + 1));
+            }
+        }
+        return TOP;
+    }
+
+    boolean startsWith(ElementPath prefix) {
+        return segments.size() >= prefix.segments.size()
+                && segments.subList(0, prefix.segments.size()).equals(prefix.segments);
+    }
+
+    private ElementPath append(Segment segment) {
+        List<Segment> appended = new ArrayList<>(segments);
+        appended.add(segment);
+        return new ElementPath(Collections.unmodifiableList(appended));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ElementPath && segments.equals(((ElementPath) other).segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return segments.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        if (segments.isEmpty()) {
+            return "top";
+        }
+        StringBuilder description = new StringBuilder("top");
+        for (Segment segment : segments) {
+            description.append(" > ").append(segment);
+        }
+        return description.toString();
+    }
+
+    enum Type {
+        FRAME, SHADOW, ELEMENT
+    }
+
+    static final class Segment {
+        final Type type;
+        final By locator;
+
+        Segment(Type type, By locator) {
+            this.type = type;
+            this.locator = locator;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Segment)) {
+                return false;
+            }
+            Segment segment = (Segment) other;
+            return type == segment.type && locator.equals(segment.locator);
+        }
+
+        @Override
+        public int hashCode() {
+            return type.hashCode() * 31 + locator.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return type.name().toLowerCase() + "(" + locator + ")";
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package utils;
+
+import logging.InteractionLogger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.DetachedShadowRootException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tìm element theo ElementPath (iframe, shadow root, element chứa) cho một driver.
+ * Ghi nhớ frame mà driver đang ở để không gọi switchTo thừa: cùng frame thì không switch,
+ * frame con thì chỉ switch phần còn thiếu. Vùng tìm kiếm (shadow root/element chứa) đã resolve
+ * được cache theo path và chỉ resolve lại khi bị stale.
+ *
+ * Driver được để lại trong frame sau khi tìm, nên code tìm ở document cấp cao nhất phải gọi
+ * toTopLevel() trước (ElementHelper đã làm, không tốn lệnh nào khi đang ở cấp cao nhất).
+ * Sau driver.get() gọi onNavigation(); ai tự gọi driver.switchTo() thì phải gọi reset() sau đó.
+ */
+public final class ElementResolver {
+    private static final Logger logger = LoggerFactory.getLogger(ElementResolver.class);
+    private static final Map<WebDriver, ElementResolver> RESOLVERS = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Map<ElementPath, SearchContext> contexts = new HashMap<>();
+    // null = không biết driver đang ở frame nào, lần switch tới sẽ bắt đầu lại từ cấp cao nhất
+    private ElementPath currentFrame = ElementPath.top();
+    private int frameSwitches;
+
+    private ElementResolver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static ElementResolver forDriver(WebDriver driver) {
+        return RESOLVERS.computeIfAbsent(driver, ElementResolver::new);
+    }
+
+    /**
+     * Bỏ resolver của driver đã đóng
+     */
+    public static void release(WebDriver driver) {
+        RESOLVERS.remove(driver);
+    }
+
+    public synchronized WebElement find(ElementPath path, By locator) {
+        try {
+            return resolve(path).findElement(locator);
+        } catch (StaleElementReferenceException | DetachedShadowRootException e) {
+            // Vùng tìm kiếm đã cache bị render lại giữa chừng: resolve lại một lần
+            if (path.isTop()) {
+                throw e;
+            }
+            reset();
+            return context(path).findElement(locator);
+        }
+    }
+
+    public synchronized List<WebElement> findAll(ElementPath path, By locator) {
+        try {
+            return resolve(path).findElements(locator);
+        } catch (StaleElementReferenceException | DetachedShadowRootException e) {
+            if (path.isTop()) {
+                throw e;
+            }
+            reset();
+            return context(path).findElements(locator);
+        }
+    }
+
+    /**
+     * Vùng tìm kiếm của path (driver đã ở đúng frame), dùng cache nếu có
+     */
+    public synchronized SearchContext context(ElementPath path) {
+        ElementPath frame = path.frameContext();
+        switchToFrame(frame);
+        if (path.equals(frame)) {
+            return driver;
+        }
+        SearchContext context = contexts.get(path);
+        if (context != null) {
+            return context;
+        }
+        context = driver;
+        List<ElementPath.Segment> segments = path.getSegments();
+        for (int i = frame.getSegments().size(); i < segments.size(); i++) {
+            ElementPath.Segment segment = segments.get(i);
+            WebElement element = context.findElement(segment.locator);
+            context = segment.type == ElementPath.Type.SHADOW ? element.getShadowRoot() : element;
+        }
+        contexts.put(path, context);
+        return context;
+    }
+
+    /**
+     * context() có thử lại một lần khi frame/shadow root/element chứa đã cache bị stale hoặc bị gỡ (render lại).
+     * Không tìm thấy element gốc (NoSuchElementException) thì không thử lại: lần tìm đó đã chờ hết implicit wait,
+     * thử lại chỉ nhân đôi thời gian chờ của một lỗi thật.
+     */
+    private SearchContext resolve(ElementPath path) {
+        try {
+            return context(path);
+        } catch (StaleElementReferenceException | DetachedShadowRootException | NoSuchFrameException e) {
+            if (!retryable(path)) {
+                throw e;
+            }
+            reset();
+            return context(path);
+        }
+    }
+
+    /**
+     * Đưa driver vào frame chứa path; không gửi lệnh nào nếu đã ở đó
+     */
+    public synchronized void enterFrame(ElementPath path) {
+        switchToFrame(path.frameContext());
+    }
+
+    /**
+     * Đưa driver về document cấp cao nhất; không gửi lệnh nào nếu đã ở đó
+     */
+    public synchronized void toTopLevel() {
+        switchToFrame(ElementPath.top());
+    }
+
+    /**
+     * Trang mới đã được mở: driver tự về cấp cao nhất, vùng tìm kiếm cũ không còn dùng được
+     */
+    public synchronized void onNavigation() {
+        currentFrame = ElementPath.top();
+        contexts.clear();
+    }
+
+    /**
+     * Quên frame và vùng tìm kiếm đã cache khi không chắc driver đang ở đâu (vd: code khác tự switchTo),
+     * lần dùng sau sẽ switch lại từ cấp cao nhất
+     */
+    public synchronized void reset() {
+        currentFrame = null;
+        contexts.clear();
+    }
+
+    /**
+     * Số lần đã phải gửi lệnh switchTo (để đo hiệu quả của cache)
+     */
+    public synchronized int getFrameSwitches() {
+        return frameSwitches;
+    }
+
+    private void switchToFrame(ElementPath target) {
+        if (target.equals(currentFrame)) {
+            return;
+        }
+        ElementPath from = currentFrame != null && target.startsWith(currentFrame) ? currentFrame : ElementPath.top();
+        if (from.isTop() && (currentFrame == null || !currentFrame.isTop())) {
+            driver.switchTo().defaultContent();
+            frameSwitches++;
+        }
+        contexts.clear();
+        // Đi tiếp từ frame hiện tại: shadow root/element chứa trong frame rồi tới frame con
+        SearchContext context = driver;
+        List<ElementPath.Segment> segments = target.getSegments();
+        try {
+            for (int i = from.getSegments().size(); i < segments.size(); i++) {
+                ElementPath.Segment segment = segments.get(i);
+                WebElement element = context.findElement(segment.locator);
+                if (segment.type == ElementPath.Type.FRAME) {
+                    InteractionLogger.log("switchFrame", segment.locator.toString());
+                    driver.switchTo().frame(element);
+                    frameSwitches++;
+                    context = driver;
+                } else {
+                    context = segment.type == ElementPath.Type.SHADOW ? element.getShadowRoot() : element;
+                }
+            }
+        } catch (WebDriverException e) {
+            // Dừng giữa chừng thì không biết driver đang ở frame nào, quay về cấp cao nhất
+            currentFrame = null;
+            throw e;
+        }
+        currentFrame = target;
+        logger.debug("Switched to frame context {}", target);
+    }
+
+    /**
+     * Chỉ thử lại khi lỗi có thể do frame/vùng tìm kiếm đã cache
+     */
+    private boolean retryable(ElementPath path) {
+        return !path.isTop() || currentFrame == null || !currentFrame.isTop();
+    }
+}
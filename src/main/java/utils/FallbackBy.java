@@ -0,0 +1,75 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chuỗi locator dự phòng: thử lần lượt từ locator nhanh nhất (CSS/ID) đến chậm nhất (XPath theo text).
+ * Locator đầu tiên tìm thấy element sẽ được ghi nhớ và thử trước ở các lần sau.
+ * Kết quả được ghi nhớ theo chuỗi locator, dùng chung cho mọi instance
+ * (PageFactory tạo By mới cho mỗi page object).
+ */
+public class FallbackBy extends By {
+    private static final Map<String, Integer> WINNERS = new ConcurrentHashMap<>();
+
+    private final List<By> candidates;
+    private final String key;
+
+    public FallbackBy(By... candidates) {
+        if (candidates.length == 0) {
+            throw new IllegalArgumentException("FallbackBy needs at least one locator");
+        }
+        this.candidates = Collections.unmodifiableList(Arrays.asList(candidates));
+        this.key = this.candidates.toString();
+    }
+
+    public static FallbackBy of(By... candidates) {
+        return new FallbackBy(candidates);
+    }
+
+    public List<By> getCandidates() {
+        return candidates;
+    }
+
+    @Override
+    public WebElement findElement(SearchContext context) {
+        List<WebElement> elements = findElements(context);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("Cannot locate an element using " + this);
+        }
+        return elements.get(0);
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        int cached = WINNERS.getOrDefault(key, 0);
+        List<WebElement> elements = context.findElements(candidates.get(cached));
+        if (!elements.isEmpty()) {
+            return elements;
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i == cached) {
+                continue;
+            }
+            elements = context.findElements(candidates.get(i));
+            if (!elements.isEmpty()) {
+                WINNERS.put(key, i);
+                return elements;
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return "By.fallback: " + candidates;
+    }
+}
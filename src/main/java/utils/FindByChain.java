@@ -0,0 +1,38 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.AbstractFindByBuilder;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactoryFinder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+
+/**
+ * Khai báo chuỗi locator dự phòng cho PageFactory, xếp từ nhanh nhất đến chậm nhất:
+ * <pre>
+ * &#64;FindByChain({&#64;FindBy(css = "[data-testid='logout']"), &#64;FindBy(xpath = "//nav//button[text()='Logout']")})
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@PageFactoryFinder(FindByChain.FindByChainBuilder.class)
+public @interface FindByChain {
+    FindBy[] value();
+
+    class FindByChainBuilder extends AbstractFindByBuilder {
+        @Override
+        public By buildIt(Object annotation, Field field) {
+            FindBy[] findBys = ((FindByChain) annotation).value();
+            By[] candidates = new By[findBys.length];
+            for (int i = 0; i < findBys.length; i++) {
+                assertValidFindBy(findBys[i]);
+                candidates[i] = buildByFromFindBy(findBys[i]);
+            }
+            return new FallbackBy(candidates);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dùng lại trang mà trình duyệt (lấy từ pool) đang mở thay vì driver.get lại, cho step điều hướng ở Background.
+ * Chỉ dùng lại khi kiểm tra được trang còn "sạch": đúng URL, đã load xong, form có mặt, chưa đăng nhập,
+ * không có toast hay lỗi form. Khi đó chỉ xoá giá trị các ô nhập và lịch sử toast.
+ */
+public final class PageReuse {
+    private static final Logger logger = LoggerFactory.getLogger(PageReuse.class);
+    private static final AtomicInteger HITS = new AtomicInteger();
+    private static final AtomicInteger MISSES = new AtomicInteger();
+
+    // Trả về null nếu đã reset và dùng lại được, ngược lại là lý do phải điều hướng lại
+    private static final String CHECK_AND_RESET_SCRIPT =
+            PageStateSnapshot.INSTALL_TOAST_OBSERVER_SCRIPT
+            + "var visible = function(el) { return !!el && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length); };"
+            + "if (location.href !== arguments[0]) return 'url is ' + location.href;"
+            + "if (document.readyState !== 'complete') return 'page still loading';"
+            + "var form = document.querySelector('form');"
+            + "if (!form || !form.querySelector('input')) return 'form not present';"
+            + "var logout = document.evaluate(\"//nav//button[text()='Logout']\", document, null,"
+            + "    XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "if (visible(logout)) return 'logged in';"
+            + "if (visible(document.querySelector(\"div[role='status']\"))) return 'toast visible';"
+            + "var errors = Array.prototype.filter.call(document.querySelectorAll('p.text-red-600'),"
+            + "    function(el) { return visible(el) && el.innerText.trim(); });"
+            + "if (errors.length) return 'form errors visible';"
+            // Gán qua setter gốc và phát sự kiện input để React cập nhật state của ô nhập
+            + "var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;"
+            + "form.querySelectorAll('input').forEach(function(input) {"
+            + "  if (input.value !== '') { setter.call(input, ''); input.dispatchEvent(new Event('input', {bubbles: true})); }"
+            + "});"
+            + "if (document.activeElement && document.activeElement.blur) document.activeElement.blur();"
+            + ToastLog.CLEAR_PAGE_HISTORY_SCRIPT
+            + "return null;";
+
+    private PageReuse() {
+    }
+
+    /**
+     * Thử dùng lại trang hiện tại cho url; trả về false nếu cần điều hướng lại bình thường
+     */
+    public static boolean tryReuse(WebDriver driver, String url) {
+        ElementResolver.forDriver(driver).toTopLevel();
+        Object reason = ((JavascriptExecutor) driver).executeScript(CHECK_AND_RESET_SCRIPT, url);
+        if (reason == null) {
+            // Xác nhận việc xoá ô nhập không làm hiện lỗi validate
+            PageStateSnapshot snapshot = PageStateSnapshot.capture(driver);
+            if (snapshot.getFormErrors().isEmpty() && snapshot.getToastText() == null) {
+                HITS.incrementAndGet();
+                logger.debug("Reusing current page {}", url);
+                return true;
+            }
+            reason = "page not clean after reset: " + snapshot;
+        }
+        MISSES.incrementAndGet();
+        logger.debug("Cannot reuse current page for {}: {}", url, reason);
+        return false;
+    }
+
+    public static String getStats() {
+        return String.format("page reuse: hits=%d, misses=%d", HITS.get(), MISSES.get());
+    }
+}
@@ -0,0 +1,195 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Ảnh chụp trạng thái trang lấy bằng đúng một lần gọi JavaScript:
+ * URL, lỗi form đang hiển thị, toast hiện tại và lịch sử toast, trạng thái đăng nhập trên nav.
+ * Các bước Then kiểm tra trên ảnh chụp thay vì gọi nhiều lệnh WebDriver riêng lẻ.
+ */
+public final class PageStateSnapshot {
+
+    /**
+     * Cài MutationObserver ghi lại mọi toast xuất hiện vào window.__toastHistory (chỉ cài một lần mỗi trang),
+     * đồng thời ghi thời điểm submit form và chuyển trang (pushState) để đo thời gian phản hồi
+     */
+    public static final String INSTALL_TOAST_OBSERVER_SCRIPT =
+            "if (!window.__toastObserver && document.body) {"
+            + "  window.__toastHistory = window.__toastHistory || [];"
+            + "  var seen = new WeakMap();"
+            + "  var record = function() {"
+            + "    document.querySelectorAll(\"div[role='status']\").forEach(function(el) {"
+            + "      var text = (el.innerText || '').trim();"
+            + "      if (text && seen.get(el) !== text) {"
+            + "        seen.set(el, text);"
+            + "        window.__toastHistory.push({text: text, className: String(el.className || ''), time: Date.now()});"
+            + "      }"
+            + "    });"
+            + "  };"
+            + "  document.addEventListener('submit', function() { window.__submitAt = Date.now(); }, true);"
+            + "  var pushState = history.pushState;"
+            + "  history.pushState = function() { window.__navigatedAt = Date.now(); return pushState.apply(this, arguments); };"
+            + "  window.__toastObserver = new MutationObserver(record);"
+            + "  window.__toastObserver.observe(document.body, {childList: true, subtree: true, characterData: true});"
+            + "  record();"
+            + "}";
+
+    private static final String CAPTURE_SCRIPT =
+            INSTALL_TOAST_OBSERVER_SCRIPT
+            + "var visible = function(el) { return !!el && !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length); };"
+            + "var byXpath = function(xpath) {"
+            + "  return document.evaluate(xpath, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "};"
+            + "var errors = [];"
+            + "document.querySelectorAll('p.text-red-600').forEach(function(el) {"
+            + "  if (visible(el) && el.innerText.trim()) errors.push(el.innerText.trim());"
+            + "});"
+            + "var toast = document.querySelector(\"div[role='status']\");"
+            + "var logout = byXpath(\"//nav//button[text()='Logout']\");"
+            + "var welcome = byXpath(\"//nav//span[contains(.,'Welcome')]\");"
+            // Phản hồi đầu tiên (toast hoặc chuyển trang) sau lần submit gần nhất
+            + "var responseAt = null;"
+            + "if (window.__submitAt) {"
+            + "  (window.__toastHistory || []).concat([{time: window.__navigatedAt || 0}]).forEach(function(t) {"
+            + "    if (t.time >= window.__submitAt && (responseAt === null || t.time < responseAt)) responseAt = t.time;"
+            + "  });"
+            + "}"
+            + "return {"
+            + "  url: location.href,"
+            + "  formErrors: errors,"
+            + "  toastText: visible(toast) ? toast.innerText.trim() : null,"
+            + "  toastClass: visible(toast) ? String(toast.className || '') : null,"
+            + "  toastHistory: (window.__toastHistory || []).map(function(t) { return t.text; }),"
+            + "  loggedIn: visible(logout) && visible(welcome),"
+            + "  welcomeText: visible(welcome) ? welcome.innerText.trim() : null,"
+            + "  responseLatencyMs: responseAt === null ? null : responseAt - window.__submitAt"
+            + "};";
+
+    private final String url;
+    private final List<String> formErrors;
+    private final String toastText;
+    private final String toastClass;
+    private final List<String> toastHistory;
+    private final boolean loggedIn;
+    private final String welcomeText;
+    private final Long responseLatencyMs;
+
+    private PageStateSnapshot(Map<String, Object> state) {
+        this.url = (String) state.get("url");
+        this.formErrors = toStringList(state.get("formErrors"));
+        this.toastText = (String) state.get("toastText");
+        this.toastClass = (String) state.get("toastClass");
+        this.toastHistory = toStringList(state.get("toastHistory"));
+        this.loggedIn = Boolean.TRUE.equals(state.get("loggedIn"));
+        this.welcomeText = (String) state.get("welcomeText");
+        Object latency = state.get("responseLatencyMs");
+        this.responseLatencyMs = latency instanceof Number ? ((Number) latency).longValue() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static PageStateSnapshot capture(WebDriver driver) {
+        ElementResolver.forDriver(driver).toTopLevel();
+        Object state = ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        return new PageStateSnapshot((Map<String, Object>) state);
+    }
+
+    /**
+     * Chụp lặp lại cho đến khi điều kiện thoả mãn hoặc hết timeout, trả về ảnh chụp cuối cùng
+     */
+    public static PageStateSnapshot waitFor(WebDriver driver, int timeoutInSeconds, Predicate<PageStateSnapshot> condition) {
+        PageStateSnapshot[] last = new PageStateSnapshot[1];
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds)).until(webDriver -> {
+                last[0] = capture(webDriver);
+                return condition.test(last[0]);
+            });
+        } catch (TimeoutException e) {
+            // Trả về trạng thái cuối cùng để bước kiểm tra báo lỗi chi tiết
+        }
+        return last[0] != null ? last[0] : capture(driver);
+    }
+
+    private static List<String> toStringList(Object value) {
+        List<String> result = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                result.add(String.valueOf(item));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public List<String> getFormErrors() {
+        return formErrors;
+    }
+
+    public String getToastText() {
+        return toastText;
+    }
+
+    public String getToastClass() {
+        return toastClass;
+    }
+
+    public List<String> getToastHistory() {
+        return toastHistory;
+    }
+
+    public boolean isLoggedIn() {
+        return loggedIn;
+    }
+
+    public String getWelcomeText() {
+        return welcomeText;
+    }
+
+    /**
+     * Thời gian (ms, đo bằng đồng hồ trình duyệt) từ lần submit form gần nhất đến phản hồi đầu tiên
+     * thấy được (toast hoặc chuyển trang); null nếu chưa submit hoặc chưa có phản hồi
+     */
+    public Long getResponseLatencyMs() {
+        return responseLatencyMs;
+    }
+
+    /**
+     * Thông báo đang hiển thị: lỗi form và toast hiện tại. Toast đã xuất hiện trước đó (kể cả của
+     * lần submit trước) không được tính; kiểm tra theo lần submit thì dùng ToastLog.since(mark).
+     */
+    public List<String> getAllMessages() {
+        List<String> messages = new ArrayList<>(formErrors);
+        if (toastText != null) {
+            messages.add(toastText);
+        }
+        return messages;
+    }
+
+    public boolean hasMessageContaining(String expected) {
+        for (String message : getAllMessages()) {
+            if (message.contains(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "PageStateSnapshot{url='" + url + "', formErrors=" + formErrors
+                + ", toast='" + toastText + "', toastHistory=" + toastHistory
+                + ", loggedIn=" + loggedIn + ", welcome='" + welcomeText + "'}";
+    }
+}
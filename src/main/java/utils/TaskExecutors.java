@@ -0,0 +1,95 @@
+package utils;
+
+import config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor cho các tác vụ chủ yếu chờ I/O (lệnh WebDriver, ghi file, virtual user...).
+ * Trên Java 21+ mỗi tác vụ chạy trên một virtual thread nên hàng trăm phiên trình duyệt song song
+ * gần như không tốn thread/bộ nhớ của JVM; trên Java 17 (hoặc executor.virtualThreads=false)
+ * dùng pool platform thread có giới hạn. API virtual thread được gọi qua reflection để mã nguồn
+ * vẫn build được với Java 17.
+ */
+public final class TaskExecutors {
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutors.class);
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method THREAD_PER_TASK = findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final boolean VIRTUAL = OF_VIRTUAL != null && THREAD_PER_TASK != null
+            && ConfigManager.getInstance().isVirtualThreads();
+    private static final ExecutorService BACKGROUND =
+            newExecutor("background-task", ConfigManager.getInstance().getExecutorPlatformThreads());
+
+    static {
+        logger.debug("Task executors use {} threads", VIRTUAL ? "virtual" : "platform");
+    }
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * true nếu các executor tạo ra chạy trên virtual thread
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL;
+    }
+
+    /**
+     * Executor dùng chung cho tác vụ phụ trợ ngắn (ghi attachment, dọn dẹp...), không cần shutdown
+     */
+    public static ExecutorService background() {
+        return BACKGROUND;
+    }
+
+    /**
+     * Executor mới: mỗi tác vụ một virtual thread, hoặc tối đa platformThreads platform thread (daemon)
+     * khi không có virtual thread. Tên thread: name-0, name-1...
+     */
+    public static ExecutorService newExecutor(String name, int platformThreads) {
+        if (VIRTUAL) {
+            try {
+                return (ExecutorService) THREAD_PER_TASK.invoke(null, virtualThreadFactory(name));
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Could not create virtual thread executor '{}', using platform threads: {}", name, e.getMessage());
+            }
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(platformThreads, platformThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), platformThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) throws ReflectiveOperationException {
+        // Thread.ofVirtual().name(name + "-", 0).factory()
+        Object builder = OF_VIRTUAL.invoke(null);
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+
+    private static ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
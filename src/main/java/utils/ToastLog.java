@@ -0,0 +1,205 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Nhật ký toast của một driver, dùng chung cho mọi page/component của driver đó và sắp theo thời điểm
+ * toast xuất hiện (đồng hồ trình duyệt). Nguồn là lịch sử do observer của PageStateSnapshot ghi trong trang;
+ * mỗi lần đồng bộ chỉ lấy phần mới (một lần gọi JavaScript).
+ *
+ * Kiểm tra theo mốc thay vì sleep:
+ * <pre>
+ * long mark = ToastLog.forDriver(driver).mark();   // ngay trước khi bấm submit
+ * ToastLog.Toast toast = ToastLog.forDriver(driver).waitFor(mark, timeout, t -> true);
+ * </pre>
+ * Nhật ký được xoá khi driver trả về pool, nên toast của scenario trước không lọt sang scenario sau.
+ * Toast chưa được đồng bộ mà trang bị tải lại hoàn toàn (driver.get) thì mất cùng trang đó.
+ */
+public final class ToastLog {
+    private static final Logger logger = LoggerFactory.getLogger(ToastLog.class);
+    private static final Map<WebDriver, ToastLog> LOGS = new ConcurrentHashMap<>();
+
+    /**
+     * Xoá lịch sử toast trong trang (ghép vào script reset trạng thái trình duyệt)
+     */
+    public static final String CLEAR_PAGE_HISTORY_SCRIPT = "window.__toastHistory = []; window.__toastDrained = 0;";
+
+    // Lấy các toast chưa đồng bộ; window.__toastDrained là số toast đã lấy từ lịch sử của trang hiện tại
+    private static final String DRAIN_SCRIPT =
+            PageStateSnapshot.INSTALL_TOAST_OBSERVER_SCRIPT
+            + "var history = window.__toastHistory || [];"
+            + "var from = window.__toastDrained || 0;"
+            + "if (from > history.length) from = 0;"
+            + "window.__toastDrained = history.length;"
+            + "return {now: Date.now(), toasts: history.slice(from)};";
+
+    private final WebDriver driver;
+    private final List<Toast> toasts = new ArrayList<>();
+    private long lastMark;
+
+    private ToastLog(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static ToastLog forDriver(WebDriver driver) {
+        return LOGS.computeIfAbsent(driver, ToastLog::new);
+    }
+
+    /**
+     * Bỏ nhật ký của driver đã đóng
+     */
+    public static void release(WebDriver driver) {
+        LOGS.remove(driver);
+    }
+
+    /**
+     * Đặt mốc tại thời điểm hiện tại của trình duyệt; các truy vấn không truyền mốc sẽ dùng mốc này
+     */
+    public synchronized long mark() {
+        lastMark = sync();
+        return lastMark;
+    }
+
+    public synchronized long getLastMark() {
+        return lastMark;
+    }
+
+    /**
+     * Các toast xuất hiện từ mốc trở đi, theo thứ tự thời gian
+     */
+    public synchronized List<Toast> since(long mark) {
+        sync();
+        List<Toast> result = new ArrayList<>();
+        for (Toast toast : toasts) {
+            if (toast.time >= mark) {
+                result.add(toast);
+            }
+        }
+        return result;
+    }
+
+    public List<Toast> sinceLastMark() {
+        return since(getLastMark());
+    }
+
+    /**
+     * Toast mới nhất từ mốc trở đi, null nếu chưa có
+     */
+    public Toast latestSince(long mark) {
+        List<Toast> result = since(mark);
+        return result.isEmpty() ? null : result.get(result.size() - 1);
+    }
+
+    /**
+     * Chờ tối đa timeout cho đến khi có toast thoả điều kiện từ mốc trở đi; null nếu hết giờ
+     */
+    public Toast waitFor(long mark, int timeoutInSeconds, Predicate<Toast> condition) {
+        Toast[] found = new Toast[1];
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds)).until(webDriver -> {
+                for (Toast toast : since(mark)) {
+                    if (condition.test(toast)) {
+                        found[0] = toast;
+                        return true;
+                    }
+                }
+                return false;
+            });
+        } catch (TimeoutException e) {
+            logger.debug("No matching toast since {} within {}s", mark, timeoutInSeconds);
+        }
+        return found[0];
+    }
+
+    /**
+     * Quên các toast đã ghi (phía Java); lịch sử trong trang được xoá bằng CLEAR_PAGE_HISTORY_SCRIPT
+     */
+    public synchronized void clear() {
+        toasts.clear();
+        lastMark = 0;
+    }
+
+    /**
+     * Lấy toast mới từ trang, trả về thời điểm hiện tại của trình duyệt
+     */
+    @SuppressWarnings("unchecked")
+    private long sync() {
+        ElementResolver.forDriver(driver).toTopLevel();
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(DRAIN_SCRIPT);
+        List<Map<String, Object>> drained = (List<Map<String, Object>>) result.get("toasts");
+        if (!drained.isEmpty()) {
+            for (Map<String, Object> toast : drained) {
+                toasts.add(new Toast(String.valueOf(toast.get("text")), String.valueOf(toast.get("className")),
+                        ((Number) toast.get("time")).longValue()));
+            }
+            // Sắp xếp ổn định: các toast cùng thời điểm giữ nguyên thứ tự ghi
+            toasts.sort(Comparator.comparingLong(Toast::getTime));
+            logger.debug("Toast log: {} new, {} total", drained.size(), toasts.size());
+        }
+        return ((Number) result.get("now")).longValue();
+    }
+
+    /**
+     * Một toast đã xuất hiện; phân loại thành công/lỗi theo class và nội dung
+     */
+    public static final class Toast {
+        private final String text;
+        private final String className;
+        private final long time;
+
+        Toast(String text, String className, long time) {
+            this.text = text;
+            this.className = className;
+            this.time = time;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Thời điểm xuất hiện (ms, đồng hồ trình duyệt)
+         */
+        public long getTime() {
+            return time;
+        }
+
+        public boolean contains(String expected) {
+            return text.contains(expected);
+        }
+
+        public boolean isSuccess() {
+            String message = text.toLowerCase();
+            return className.contains("success") || className.contains("green") || message.contains("success");
+        }
+
+        public boolean isError() {
+            String message = text.toLowerCase();
+            return className.contains("error") || className.contains("red")
+                    || message.contains("error") || message.contains("failed") || message.contains("incorrect")
+                    || message.contains("invalid") || message.contains("not found");
+        }
+
+        @Override
+        public String toString() {
+            return "Toast{'" + text + "', class='" + className + "', time=" + time + "}";
+        }
+    }
+}
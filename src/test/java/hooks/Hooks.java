@@ -2,98 +2,149 @@ package hooks;
 
 import config.ConfigManager;
 import context.TestContext;
+import data.UserData;
+import data.UserPool;
+import driver.BrowserContext;
+import driver.DriverPool;
+import driver.ScenarioWatchdog;
 import io.cucumber.java.After;
 import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
 import io.cucumber.java.Scenario;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import logging.BrowserLogCollector;
+import logging.ScenarioLogBuffer;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-
-import java.time.Duration;
+import reporting.DiskAttachments;
+import reporting.LoadMetrics;
+import utils.PageStateSnapshot;
 
 
 public class Hooks {
     private static final Logger logger = LoggerFactory.getLogger(Hooks.class);
     private WebDriver driver;
+    private DriverPool driverPool;
     private TestContext testContext;
-    private static final ConfigManager configManager = new ConfigManager();
+    private ScenarioWatchdog.Watch watch;
+    private int stepIndex;
+    private long scenarioStartNanos;
 
     @Before
     public void setUp(Scenario scenario) {
-        String browser = System.getProperty("browser", configManager.getBrowser());
-        boolean headless = Boolean.parseBoolean(System.getProperty("headless", "false"));
+        scenarioStartNanos = System.nanoTime();
+        ScenarioLogBuffer.clear();
 
+        if (ConfigManager.getInstance().isApiMode()) {
+            // Step chạy trên client HTTP, không cần trình duyệt
+            testContext = new TestContext(null);
+            testContext.getScenarioContext().setContext("scenario", scenario);
+            return;
+        }
         if (driver == null) {
-            if ("firefox".equalsIgnoreCase(browser)) {
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                if (headless) {
-                    firefoxOptions.addArguments("--headless");
-                }
-                driver = new FirefoxDriver(firefoxOptions);
-            } else {
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                if (headless) {
-                    chromeOptions.addArguments("--headless");
-                }
-                chromeOptions.addArguments("--disable-dev-shm-usage");
-                chromeOptions.addArguments("--no-sandbox");
-                chromeOptions.addArguments("--disable-extensions");
-                chromeOptions.addArguments("--disable-infobars");
-                chromeOptions.addArguments("--disable-gpu");
-                chromeOptions.setPageLoadStrategy(org.openqa.selenium.PageLoadStrategy.EAGER);
-                
-                driver = new ChromeDriver(chromeOptions);
-            }
-            driver.manage().window().maximize();
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(2));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(10));
-
+            driverPool = DriverPool.forBrowser(BrowserContext.current());
+            driver = driverPool.acquire();
             testContext = new TestContext(driver);
         }
+        BrowserLogCollector.forDriver(driver).clear();
         testContext.getScenarioContext().setContext("scenario", scenario);
+        watch = ScenarioWatchdog.start(scenario.getName(), driver, driverPool);
+    }
+
+    @BeforeStep
+    public void beforeStep(Scenario scenario) {
+        if (watch != null) {
+            watch.stepStarted("#" + (++stepIndex) + " of " + scenario.getName());
+        }
     }
 
     @AfterStep
     public void afterStep(Scenario scenario) {
-        if (scenario.isFailed()) {
+        if (watch == null) {
+            return;
+        }
+        if (scenario.isFailed() && !watch.isFired()) {
             takeScreenshot(scenario);
         }
+        watch.stepFinished();
     }
 
     @After
     public void tearDown(Scenario scenario) {
-        if (scenario.isFailed()) {
-            takeScreenshot(scenario);
+        boolean browserReplaced = watch != null && watch.stop();
+        if (LoadMetrics.isActive()) {
+            recordLoadMetrics(scenario, browserReplaced);
+        }
+        if (browserReplaced) {
+            // Trình duyệt đã bị watchdog đóng, chỉ đính kèm chẩn đoán đã ghi ra file
+            attachInteractionLog(scenario);
+            scenario.attach("Watchdog: " + watch.getFiredReason() + System.lineSeparator()
+                    + "Diagnostics: " + watch.getDiagnostics(), "text/plain", "Watchdog");
+            driver = null;
+        } else if (scenario.isFailed()) {
+            if (driver != null) {
+                takeScreenshot(scenario);
+                attachBrowserLog(scenario);
+            }
+            attachInteractionLog(scenario);
+        } else {
+            ScenarioLogBuffer.clear();
         }
         if (driver != null) {
-            driver.quit();
+            driverPool.release(driver);
             driver = null;
         }
         if (testContext != null) {
+            UserData leasedUser = (UserData) testContext.getScenarioContext().getContext("leasedUser");
+            if (leasedUser != null) {
+                UserPool.getInstance().release(leasedUser);
+                logger.debug("User pool stats: {}", UserPool.getInstance().getStats());
+            }
             testContext.getScenarioContext().clearContext();
         }
+        if (browserReplaced && !scenario.isFailed()) {
+            throw new IllegalStateException("Scenario '" + scenario.getName() + "' " + watch.getFiredReason());
+        }
     }
 
 
+    private void recordLoadMetrics(Scenario scenario, boolean browserReplaced) {
+        Long responseLatencyMs = null;
+        if (!browserReplaced) {
+            try {
+                responseLatencyMs = PageStateSnapshot.capture(driver).getResponseLatencyMs();
+            } catch (Exception e) {
+                logger.debug("Could not read response latency: {}", e.getMessage());
+            }
+        }
+        LoadMetrics.record(!scenario.isFailed() && !browserReplaced, System.nanoTime() - scenarioStartNanos,
+                responseLatencyMs);
+    }
+
     private void takeScreenshot(Scenario scenario) {
         try {
-            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            scenario.attach(screenshot, "image/png", "Failed step screenshot");
+            // Ghi thẳng ra đĩa, không giữ mảng byte của ảnh trong scenario
+            DiskAttachments.attachScreenshot(scenario, driver, "Failed step screenshot");
         } catch (Exception e) {
             logger.error("Failed to take screenshot: {}", e.getMessage());
         }
     }
 
+    private void attachInteractionLog(Scenario scenario) {
+        String interactionLog = ScenarioLogBuffer.dump();
+        if (!interactionLog.isEmpty()) {
+            scenario.attach(interactionLog, "text/plain", "Interaction log");
+        }
+    }
+
+    private void attachBrowserLog(Scenario scenario) {
+        String browserLog = BrowserLogCollector.forDriver(driver).dump();
+        if (!browserLog.isEmpty()) {
+            scenario.attach(browserLog, "text/plain", "Browser console");
+        }
+    }
+
     public WebDriver getDriver() {
         return driver;
     }
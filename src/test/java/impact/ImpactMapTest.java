@@ -0,0 +1,173 @@
+package impact;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ImpactMapTest {
+    private static final String LOGIN_FEATURE = "src/test/resources/features/Login.feature";
+    private static final String REGISTER_FEATURE = "src/test/resources/features/Register.feature";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static ImpactMap.Entry entry(boolean passed, String... classes) {
+        return new ImpactMap.Entry("scenario", Set.of(classes), passed);
+    }
+
+    private static ImpactMap recordedMap() {
+        ImpactMap map = new ImpactMap();
+        map.merge(Map.of(
+                LOGIN_FEATURE + ":11", entry(true, "pages.LoginPage", "stepDefinitions.LoginSteps"),
+                LOGIN_FEATURE + ":21", entry(true, "pages.LoginPage$Field", "pages.DashboardPage"),
+                REGISTER_FEATURE + ":11", entry(true, "pages.RegisterPage")));
+        return map;
+    }
+
+    @Test
+    public void emptyMapSelectsFullRun() {
+        ImpactMap.Selection selection = new ImpactMap().select(List.of("src/main/java/pages/LoginPage.java"));
+
+        Assert.assertTrue(selection.isFullRun());
+    }
+
+    @Test
+    public void changedClassSelectsScenariosThatUsedIt() {
+        ImpactMap.Selection selection = recordedMap().select(List.of("src/main/java/pages/LoginPage.java"));
+
+        Assert.assertFalse(selection.isFullRun());
+        // Inner class LoginPage$Field được tính là LoginPage
+        Assert.assertEquals(List.of(LOGIN_FEATURE + ":11:21"), selection.getFeatures());
+    }
+
+    @Test
+    public void changedFeatureSelectsWholeFeature() {
+        ImpactMap.Selection selection = recordedMap().select(List.of(REGISTER_FEATURE,
+                "src/main/java/pages/RegisterPage.java"));
+
+        Assert.assertEquals(List.of(REGISTER_FEATURE), selection.getFeatures());
+    }
+
+    @Test
+    public void unknownClassOrResourceSelectsFullRun() {
+        ImpactMap map = recordedMap();
+
+        Assert.assertTrue(map.select(List.of("src/main/java/utils/WaitUtils.java")).isFullRun());
+        Assert.assertTrue(map.select(List.of("src/test/resources/config.properties")).isFullRun());
+        Assert.assertTrue(map.select(List.of("pom.xml")).isFullRun());
+    }
+
+    @Test
+    public void filesOutsideSourcesAreIgnored() {
+        ImpactMap.Selection selection = recordedMap().select(List.of("README.md", "docs/notes.txt"));
+
+        Assert.assertFalse(selection.isFullRun());
+        Assert.assertTrue(selection.isEmpty());
+    }
+
+    @Test
+    public void failedScenariosAreAlwaysSelected() {
+        ImpactMap map = recordedMap();
+        map.merge(Map.of(REGISTER_FEATURE + ":11", entry(false, "pages.RegisterPage")));
+
+        ImpactMap.Selection selection = map.select(List.of("README.md"));
+
+        Assert.assertEquals(List.of(REGISTER_FEATURE + ":11"), selection.getFeatures());
+    }
+
+    @Test
+    public void mergeKeepsScenariosNotInTheLatestRun() {
+        ImpactMap map = recordedMap();
+        map.merge(Map.of(LOGIN_FEATURE + ":11", entry(true, "pages.LoginPage")));
+
+        Assert.assertEquals(3, map.size());
+    }
+
+    @Test
+    public void mergeDropsOldLinesOfAnEditedFeature() throws IOException {
+        Path feature = folder.newFile("Sample.feature").toPath();
+        Files.write(feature, "Feature: v1".getBytes(StandardCharsets.UTF_8));
+        ImpactMap map = new ImpactMap();
+        map.merge(Map.of(feature + ":3", entry(true, "pages.LoginPage"),
+                feature + ":8", entry(true, "pages.RegisterPage")));
+
+        Files.write(feature, "Feature: v2".getBytes(StandardCharsets.UTF_8));
+        map.merge(Map.of(feature + ":4", entry(true, "pages.LoginPage")));
+
+        Assert.assertEquals(1, map.size());
+        Assert.assertTrue(map.select(List.of("src/main/java/pages/RegisterPage.java")).isFullRun());
+    }
+
+    @Test
+    public void featureEditedSinceRecordingIsSelectedWhole() throws IOException {
+        Path feature = folder.newFile("Edited.feature").toPath();
+        Files.write(feature, "Feature: v1".getBytes(StandardCharsets.UTF_8));
+        ImpactMap map = new ImpactMap();
+        map.merge(Map.of(feature + ":3", entry(true, "pages.LoginPage"),
+                feature + ":8", entry(true, "pages.RegisterPage")));
+
+        // Sửa đã commit nên không có trong diff, chỉ có class thay đổi
+        Files.write(feature, "Feature: v2".getBytes(StandardCharsets.UTF_8));
+        ImpactMap.Selection selection = map.select(List.of("src/main/java/pages/LoginPage.java"));
+
+        Assert.assertEquals(List.of(feature.toString()), selection.getFeatures());
+        Assert.assertTrue(selection.getReasons().contains(feature + " <- edited since the impact map was recorded"));
+    }
+
+    @Test
+    public void partialRunOfEditedFeatureKeepsItUnknown() throws IOException {
+        Path feature = folder.newFile("Partial.feature").toPath();
+        Files.write(feature, "Feature: v1".getBytes(StandardCharsets.UTF_8));
+        ImpactMap map = new ImpactMap();
+        map.merge(Map.of(feature + ":3", entry(true, "pages.LoginPage"),
+                feature + ":8", entry(true, "pages.RegisterPage")));
+
+        Files.write(feature, "Feature: v2".getBytes(StandardCharsets.UTF_8));
+        Map<String, Set<Integer>> scenarioLines = Map.of(feature.toString(), Set.of(4, 9));
+        map.merge(Map.of(feature + ":4", entry(true, "pages.LoginPage")), scenarioLines);
+
+        Assert.assertEquals(List.of(feature.toString()), map.select(List.of("README.md")).getFeatures());
+
+        // Chạy đủ mọi scenario của bản mới: map lại chọn theo dòng
+        map.merge(Map.of(feature + ":4", entry(true, "pages.LoginPage"),
+                feature + ":9", entry(true, "pages.RegisterPage")), scenarioLines);
+
+        Assert.assertTrue(map.select(List.of("README.md")).isEmpty());
+        Assert.assertEquals(List.of(feature + ":9"),
+                map.select(List.of("src/main/java/pages/RegisterPage.java")).getFeatures());
+    }
+
+    @Test
+    public void mergeDropsDeletedFeatures() throws IOException {
+        Path feature = folder.newFile("Removed.feature").toPath();
+        ImpactMap map = recordedMap();
+        map.merge(Map.of(feature + ":3", entry(true, "pages.LoginPage")));
+        Assert.assertEquals(4, map.size());
+
+        Files.delete(feature);
+        map.merge(Map.of());
+
+        Assert.assertEquals(3, map.size());
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() {
+        Path file = folder.getRoot().toPath().resolve("impact-map.json");
+        recordedMap().save(file);
+
+        ImpactMap loaded = ImpactMap.load(file);
+
+        Assert.assertEquals(3, loaded.size());
+        Assert.assertEquals(List.of(LOGIN_FEATURE + ":11:21"),
+                loaded.select(List.of("src/main/java/pages/LoginPage.java")).getFeatures());
+    }
+}
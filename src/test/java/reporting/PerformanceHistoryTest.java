@@ -0,0 +1,114 @@
+package reporting;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class PerformanceHistoryTest {
+    private static final String CHROME = PerformanceHistory.environment("browser", "chrome", "https://app.example");
+    private static final String FIREFOX = PerformanceHistory.environment("browser", "firefox", "https://app.example");
+    private static final String STEP = "step:I click the login button";
+    // baselineRuns, minRuns, thresholdPercent, minDeltaMs như config mặc định
+    private static final int BASELINE_RUNS = 20;
+    private static final int MIN_RUNS = 5;
+    private static final int THRESHOLD_PERCENT = 20;
+    private static final int MIN_DELTA_MS = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Map<String, double[]> run(double stepMs) {
+        return Map.of(STEP, new double[]{1, stepMs});
+    }
+
+    private Path historyWith(String environment, double... stepMs) {
+        Path file = folder.getRoot().toPath().resolve("perf-history.ndjson");
+        PerformanceHistory history = PerformanceHistory.load(file, environment);
+        for (int i = 0; i < stepMs.length; i++) {
+            history.append("run-" + i, run(stepMs[i]), 50);
+        }
+        return file;
+    }
+
+    private static List<PerformanceHistory.Regression> regressions(Path file, String environment, double stepMs) {
+        return PerformanceHistory.load(file, environment)
+                .findRegressions(run(stepMs), BASELINE_RUNS, MIN_RUNS, THRESHOLD_PERCENT, MIN_DELTA_MS);
+    }
+
+    @Test
+    public void flagsStepMuchSlowerThanStableBaseline() {
+        Path file = historyWith(CHROME, 500, 510, 490, 505, 495, 500);
+
+        List<PerformanceHistory.Regression> regressions = regressions(file, CHROME, 800);
+
+        Assert.assertEquals(1, regressions.size());
+        PerformanceHistory.Regression regression = regressions.get(0);
+        Assert.assertEquals(STEP, regression.getKey());
+        Assert.assertEquals(500, regression.getBaselineMs(), 0.1);
+        Assert.assertEquals(60, regression.getChangePercent(), 0.1);
+    }
+
+    @Test
+    public void ignoresChangeWithinNoiseOfBaseline() {
+        // Baseline dao động mạnh: +40% vẫn nằm trong 3 độ lệch chuẩn
+        Path file = historyWith(CHROME, 300, 700, 350, 650, 400, 600);
+
+        Assert.assertTrue(regressions(file, CHROME, 700).isEmpty());
+    }
+
+    @Test
+    public void ignoresChangeBelowPercentOrDeltaThreshold() {
+        Path file = historyWith(CHROME, 100, 100, 100, 100, 100, 100);
+
+        // +40 ms: dưới minDeltaMs
+        Assert.assertTrue(regressions(file, CHROME, 140).isEmpty());
+
+        Path slowFile = folder.getRoot().toPath().resolve("slow.ndjson");
+        PerformanceHistory slow = PerformanceHistory.load(slowFile, CHROME);
+        for (int i = 0; i < 6; i++) {
+            slow.append("run-" + i, run(1000), 50);
+        }
+        // +10% (100 ms): dưới regressionPercent
+        Assert.assertTrue(regressions(slowFile, CHROME, 1100).isEmpty());
+    }
+
+    @Test
+    public void needsMinimumBaselineRuns() {
+        Path file = historyWith(CHROME, 500, 500, 500, 500);
+
+        Assert.assertTrue(regressions(file, CHROME, 2000).isEmpty());
+    }
+
+    @Test
+    public void comparesOnlyWithRunsOfTheSameEnvironment() {
+        Path file = historyWith(CHROME, 500, 500, 500, 500, 500, 500);
+        PerformanceHistory firefox = PerformanceHistory.load(file, FIREFOX);
+        for (int i = 0; i < 6; i++) {
+            firefox.append("firefox-" + i, run(900), 50);
+        }
+
+        Assert.assertEquals(6, PerformanceHistory.load(file, CHROME).size());
+        // Firefox chậm hơn Chrome nhưng không chậm hơn chính nó
+        Assert.assertTrue(regressions(file, FIREFOX, 900).isEmpty());
+        Assert.assertEquals(1, regressions(file, CHROME, 900).size());
+        Assert.assertTrue(regressions(file, PerformanceHistory.environment("api", "-", "https://app.example"), 2000)
+                .isEmpty());
+    }
+
+    @Test
+    public void keepsMaxRunsPerEnvironment() {
+        Path file = historyWith(CHROME, 500, 500, 500);
+        PerformanceHistory firefox = PerformanceHistory.load(file, FIREFOX);
+        for (int i = 0; i < 5; i++) {
+            firefox.append("firefox-" + i, run(900), 2);
+        }
+
+        Assert.assertEquals(2, PerformanceHistory.load(file, FIREFOX).size());
+        Assert.assertEquals(2, PerformanceHistory.load(file, CHROME).size());
+    }
+}
@@ -0,0 +1,25 @@
+package runners;
+
+import io.cucumber.junit.Cucumber;
+import io.cucumber.junit.CucumberOptions;
+import org.junit.runner.RunWith;
+
+/**
+ * Chạy lại các scenario validate form ở binding.mode=api (gọi thẳng API, không mở trình duyệt).
+ * Scenario @browser-only kiểm tra thông báo do client tạo ra (validate trước khi gửi) nên bị loại.
+ * Chạy: mvn test -Papi
+ */
+@RunWith(Cucumber.class)
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"stepDefinitions", "hooks"},
+        plugin = {
+                "pretty",
+                "reporting.StreamingResultsPlugin:target/cucumber-reports/api",
+                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+        },
+        monochrome = true,
+        tags = "(@invalid-input or @invalid-credentials) and not @browser-only"
+)
+public class ApiMirrorRunner {
+}
@@ -0,0 +1,155 @@
+package runners;
+
+import driver.BrowserContext;
+import driver.DriverFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import tools.StandInServer;
+import utils.ElementPath;
+import utils.ElementResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Chạy ElementResolver trên trang stand-in /widgets: shadow root ở cấp cao nhất, iframe chứa shadow root
+ * và iframe lồng bên trong (src/test/resources/standin/widgets*.html). Kiểm tra find/findAll/enterFrame,
+ * số lần switchTo khi chuyển giữa các path và việc resolve lại khi shadow root bị render lại.
+ *
+ * Chạy: mvn test -Pelement-paths (mặc định headless)
+ */
+public class ElementPathRunner {
+    private static final By ITEMS = By.cssSelector("li.item");
+    private static final By REFRESH = By.cssSelector("button.refresh");
+    private static final ElementPath TOP_WIDGET = ElementPath.top().shadow(By.id("top-widget"));
+    private static final ElementPath OUTER_FRAME = ElementPath.top().frame(By.id("outer-frame"));
+    private static final ElementPath ACCOUNT_WIDGET = OUTER_FRAME.shadow(By.id("account-widget"));
+    private static final ElementPath INNER_FRAME = OUTER_FRAME.frame(By.id("inner-frame"));
+    private static final ElementPath INNER_WIDGET_LIST = INNER_FRAME.shadow(By.id("inner-widget")).within(By.cssSelector("ul"));
+
+    private static StandInServer standInServer;
+    private static String baseUrl;
+    private static WebDriver driver;
+    private static ElementResolver resolver;
+
+    @BeforeClass
+    public static void startBrowser() throws IOException {
+        if (System.getProperty("headless") == null) {
+            System.setProperty("headless", "true");
+        }
+        standInServer = new StandInServer(0);
+        baseUrl = standInServer.start(0);
+        driver = DriverFactory.create(BrowserContext.current());
+        // Trang tĩnh đã load xong: không chờ ngầm để lần tìm thất bại trả về ngay
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        resolver = ElementResolver.forDriver(driver);
+    }
+
+    @AfterClass
+    public static void stopBrowser() {
+        if (driver != null) {
+            DriverFactory.quit(driver);
+        }
+        if (standInServer != null) {
+            standInServer.stop();
+        }
+    }
+
+    @Before
+    public void openWidgetsPage() {
+        resolver.toTopLevel();
+        // driver.get chờ sự kiện load của trang, gồm cả các iframe lồng nhau
+        driver.get(baseUrl + "/widgets");
+        resolver.onNavigation();
+    }
+
+    private static List<String> texts(List<WebElement> elements) {
+        return elements.stream().map(WebElement::getText).collect(Collectors.toList());
+    }
+
+    @Test
+    public void findsInShadowRootAtTopLevel() {
+        int switches = resolver.getFrameSwitches();
+
+        Assert.assertEquals(List.of("Home", "Settings"), texts(resolver.findAll(TOP_WIDGET, ITEMS)));
+        Assert.assertEquals("Refresh", resolver.find(TOP_WIDGET, REFRESH).getText());
+        Assert.assertEquals("Shadow root at top level needs no switchTo", switches, resolver.getFrameSwitches());
+    }
+
+    @Test
+    public void findsInShadowRootInsideFrame() {
+        Assert.assertEquals(List.of("Profile", "Orders", "Logout"), texts(resolver.findAll(ACCOUNT_WIDGET, ITEMS)));
+    }
+
+    @Test
+    public void findsInNestedFrameAndShadowRoot() {
+        int switches = resolver.getFrameSwitches();
+
+        Assert.assertEquals(List.of("SMS", "Email"), texts(resolver.findAll(INNER_WIDGET_LIST, ITEMS)));
+        Assert.assertEquals("outer and inner frame", switches + 2, resolver.getFrameSwitches());
+
+        // Cùng frame: không gửi thêm switchTo
+        Assert.assertEquals("Verify", resolver.find(INNER_FRAME, By.cssSelector("button[type='submit']")).getText());
+        Assert.assertEquals(switches + 2, resolver.getFrameSwitches());
+    }
+
+    @Test
+    public void switchesOnlyWhatIsNeededBetweenPaths() {
+        resolver.find(ACCOUNT_WIDGET, REFRESH);
+        int switches = resolver.getFrameSwitches();
+
+        // Frame con của frame hiện tại: chỉ một switchTo
+        resolver.find(INNER_FRAME, By.name("code"));
+        Assert.assertEquals(switches + 1, resolver.getFrameSwitches());
+
+        // Quay ra frame cha: về cấp cao nhất rồi vào lại outer frame
+        resolver.find(ACCOUNT_WIDGET, REFRESH);
+        Assert.assertEquals(switches + 3, resolver.getFrameSwitches());
+
+        // Về cấp cao nhất: một lệnh defaultContent
+        resolver.find(TOP_WIDGET, REFRESH);
+        Assert.assertEquals(switches + 4, resolver.getFrameSwitches());
+    }
+
+    @Test
+    public void enterFrameLeavesDriverInFrame() {
+        resolver.enterFrame(INNER_WIDGET_LIST);
+        driver.findElement(By.name("code")).sendKeys("123456");
+        Assert.assertEquals("123456", driver.findElement(By.name("code")).getAttribute("value"));
+
+        resolver.toTopLevel();
+        Assert.assertEquals(1, driver.findElements(By.id("outer-frame")).size());
+    }
+
+    @Test
+    public void resolvesAgainWhenShadowRootIsRendered() {
+        Assert.assertEquals(3, resolver.findAll(ACCOUNT_WIDGET, ITEMS).size());
+
+        // Host bị thay: shadow root đã cache bị gỡ, lần tìm sau phải resolve lại
+        resolver.find(ACCOUNT_WIDGET, REFRESH).click();
+
+        Assert.assertEquals(List.of("Profile", "Orders", "Logout", "Item 4"),
+                texts(resolver.findAll(ACCOUNT_WIDGET, ITEMS)));
+        Assert.assertEquals("Item 4", resolver.find(ACCOUNT_WIDGET, By.cssSelector("li.item:last-child")).getText());
+    }
+
+    @Test
+    public void missingRootFailsWithoutRetry() {
+        resolver.find(ACCOUNT_WIDGET, REFRESH);
+        int switches = resolver.getFrameSwitches();
+
+        Assert.assertThrows(NoSuchElementException.class,
+                () -> resolver.find(OUTER_FRAME.shadow(By.id("missing-widget")), ITEMS));
+        Assert.assertEquals("Root not found must not reset and switch frames again",
+                switches, resolver.getFrameSwitches());
+    }
+}
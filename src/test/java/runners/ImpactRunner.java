@@ -0,0 +1,137 @@
+package runners;
+
+import config.ConfigManager;
+import impact.ImpactMap;
+import io.cucumber.core.feature.FeatureWithLines;
+import io.cucumber.core.feature.GluePath;
+import io.cucumber.core.options.CucumberProperties;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.Runtime;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Chỉ chạy các scenario bị ảnh hưởng bởi thay đổi so với impact.base (mặc định HEAD, tức là các thay đổi
+ * chưa commit), dựa trên impact map do ImpactMapPlugin ghi ở các lần chạy trước. Map chưa có hoặc
+ * thay đổi không xác định được phạm vi thì chạy toàn bộ. Lựa chọn và lý do được ghi vào
+ * target/cucumber-reports/impact-selection.md.
+ *
+ * Chạy: mvn test -Pimpact [-Dimpact.base=origin/main]
+ */
+public class ImpactRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ImpactRunner.class);
+    private static final Path REPORTS_DIR = Paths.get("target", "cucumber-reports");
+    private static final String FEATURES_DIR = "src/test/resources/features";
+
+    @Test
+    public void runImpacted() throws Exception {
+        String base = System.getProperty("impact.base", "HEAD");
+        Set<String> changedFiles = changedFiles(base);
+        ImpactMap map = ImpactMap.load(Paths.get(ConfigManager.getInstance().getImpactMapFile()));
+        ImpactMap.Selection selection = map.select(changedFiles);
+        writeSelection(base, changedFiles, selection);
+
+        if (selection.isEmpty()) {
+            logger.info("No scenarios affected by {} changed file(s) since {}", changedFiles.size(), base);
+            return;
+        }
+        List<String> features = selection.isFullRun() ? List.of(FEATURES_DIR) : selection.getFeatures();
+        logger.info("Running {}: {}", selection.isFullRun() ? "all scenarios (" + selection.getFullRunReason() + ")"
+                : "affected scenarios", features);
+
+        RuntimeOptionsBuilder builder = new RuntimeOptionsBuilder();
+        for (String feature : features) {
+            builder.addFeature(FeatureWithLines.parse(feature));
+        }
+        RuntimeOptions baseOptions = builder
+                .addGlue(GluePath.parse("stepDefinitions"))
+                .addGlue(GluePath.parse("hooks"))
+                .addPluginName("pretty")
+                .addPluginName("reporting.StreamingResultsPlugin:" + REPORTS_DIR)
+                .addPluginName("reporting.ProgressPlugin")
+                .addPluginName("driver.PrewarmPlugin")
+                .addPluginName("impact.ImpactMapPlugin")
+                .addPluginName("reporting.PerformanceTrendPlugin:" + REPORTS_DIR)
+                .addPluginName("reporting.ResourceUsagePlugin:" + REPORTS_DIR)
+                .setMonochrome()
+                .build();
+        RuntimeOptions options = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromSystemProperties())
+                .build(baseOptions);
+
+        Runtime runtime = Runtime.builder()
+                .withRuntimeOptions(options)
+                .withClassLoader(() -> Thread.currentThread().getContextClassLoader())
+                .build();
+        runtime.run();
+        Assert.assertEquals("Some scenarios failed", 0, runtime.exitStatus());
+    }
+
+    /**
+     * File đã sửa so với base (kể cả chưa commit) và file mới chưa được git theo dõi,
+     * đường dẫn tương đối so với thư mục project
+     */
+    private static Set<String> changedFiles(String base) throws IOException, InterruptedException {
+        Set<String> files = new LinkedHashSet<>();
+        files.addAll(git("diff", "--name-only", "--relative", base));
+        files.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return files;
+    }
+
+    private static List<String> git(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " failed: " + output.trim());
+        }
+        List<String> lines = new ArrayList<>();
+        for (String line : output.split("\\R")) {
+            if (!line.isBlank()) {
+                lines.add(line.trim());
+            }
+        }
+        return lines;
+    }
+
+    private static void writeSelection(String base, Set<String> changedFiles, ImpactMap.Selection selection) throws IOException {
+        List<String> report = new ArrayList<>();
+        report.add("# Impact selection (base: " + base + ")");
+        report.add("");
+        report.add("## Changed files");
+        changedFiles.forEach(file -> report.add("- " + file));
+        report.add("");
+        report.add("## Selected");
+        if (selection.isFullRun()) {
+            report.add("- all scenarios: " + selection.getFullRunReason());
+        } else {
+            selection.getFeatures().forEach(feature -> report.add("- " + feature));
+        }
+        report.add("");
+        report.add("## Reasons");
+        selection.getReasons().forEach(reason -> report.add("- " + reason));
+        Files.createDirectories(REPORTS_DIR);
+        Files.write(REPORTS_DIR.resolve("impact-selection.md"), report, StandardCharsets.UTF_8);
+    }
+}
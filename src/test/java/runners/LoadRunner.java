@@ -0,0 +1,165 @@
+package runners;
+
+import config.ConfigManager;
+import driver.BrowserContext;
+import driver.DriverPool;
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.feature.FeatureWithLines;
+import io.cucumber.core.feature.GluePath;
+import io.cucumber.core.gherkin.Feature;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.FeaturePathFeatureSupplier;
+import io.cucumber.core.runtime.Runtime;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reporting.LoadMetrics;
+import tools.StandInServer;
+import utils.TaskExecutors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Chế độ load: chạy lặp scenario theo tag với N trình duyệt headless song song (virtual user),
+ * dùng lại step definition và page object hiện có. Báo cáo throughput (trên thời gian đo thực tế), số scenario chạy
+ * đồng thời trung bình, tỉ lệ lỗi và phân vị thời gian phản hồi của server (quan sát qua toast/chuyển trang)
+ * vào target/load-report.md.
+ *
+ * Chạy: mvn test -Pload
+ *   -Dload.tags=@successful-login   : scenario cần chạy
+ *   -Dload.users=5                  : số virtual user
+ *   -Dload.duration=60              : thời gian chạy (giây), dùng khi load.iterations=0
+ *   -Dload.iterations=0             : số lần lặp mỗi virtual user
+ *   -Dload.standin=true             : chạy trên tools.StandInServer thay vì baseUrl
+ *   -Dload.standinLatencyMs=0       : độ trễ giả lập của stand-in server
+ */
+public class LoadRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+    private static final Path REPORT = Paths.get("target", "load-report.md");
+    private static StandInServer standInServer;
+
+    static {
+        // Phải đặt trước khi ConfigManager được load lần đầu
+        if (Boolean.getBoolean("load.standin")) {
+            standInServer = new StandInServer(Long.getLong("load.standinLatencyMs", 0));
+            try {
+                System.setProperty("baseUrl", standInServer.start(0));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start stand-in server", e);
+            }
+        }
+        setDefault("headless", "true");
+        setDefault("driver.reuse", "true");
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    @Test
+    public void runLoad() throws Exception {
+        String tags = System.getProperty("load.tags", "@successful-login");
+        int users = Integer.getInteger("load.users", 5);
+        int iterations = Integer.getInteger("load.iterations", 0);
+        logger.info("Load run: {} virtual users, tags {}, {}", users, tags,
+                iterations > 0 ? iterations + " iterations each" : System.getProperty("load.duration", "60") + "s");
+        if (!ConfigManager.getInstance().isApiMode()) {
+            // Mỗi virtual user có sẵn trình duyệt, thời gian khởi động không tính vào số liệu load
+            DriverPool pool = DriverPool.forBrowser(BrowserContext.current());
+            pool.prewarm(users);
+            pool.awaitWarmup();
+            logger.info("Driver pool {}", pool.getStats());
+        }
+        ExecutorService executor = TaskExecutors.newExecutor("virtual-user", users);
+        // Mỗi virtual user chuẩn bị options và parse feature một lần trước khi bắt đầu đo
+        CountDownLatch prepared = new CountDownLatch(users);
+        CountDownLatch started = new CountDownLatch(1);
+        long[] deadline = new long[1];
+        try {
+            List<Future<Integer>> virtualUsers = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                virtualUsers.add(executor.submit(() -> {
+                    RuntimeOptions options;
+                    Supplier<ClassLoader> classLoader = () -> Thread.currentThread().getContextClassLoader();
+                    List<Feature> features;
+                    try {
+                        options = runtimeOptions(tags);
+                        features = new FeaturePathFeatureSupplier(classLoader, options,
+                                new FeatureParser(UUID::randomUUID)).get();
+                    } finally {
+                        prepared.countDown();
+                    }
+                    started.await();
+                    int runs = 0;
+                    while (iterations > 0 ? runs < iterations : System.nanoTime() < deadline[0]) {
+                        // Runtime chỉ chạy được một lần; dựng lại với feature đã parse. Trong lúc dựng user này
+                        // không tạo tải, LoadMetrics báo cáo số scenario chạy đồng thời thực tế
+                        Runtime.builder()
+                                .withRuntimeOptions(options)
+                                .withClassLoader(classLoader)
+                                .withFeatureSupplier(() -> features)
+                                .build()
+                                .run();
+                        runs++;
+                    }
+                    return runs;
+                }));
+            }
+            prepared.await();
+            deadline[0] = System.nanoTime() + TimeUnit.SECONDS.toNanos(Integer.getInteger("load.duration", 60));
+            LoadMetrics.start();
+            started.countDown();
+            for (Future<Integer> virtualUser : virtualUsers) {
+                virtualUser.get();
+            }
+        } finally {
+            LoadMetrics.stop();
+            executor.shutdownNow();
+        }
+
+        List<String> report = LoadMetrics.report(users);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report, StandardCharsets.UTF_8);
+        report.forEach(line -> logger.info(line));
+        logger.info("Load report written to {}", REPORT.toAbsolutePath());
+        Assert.assertTrue("No iterations were executed for tags " + tags, LoadMetrics.getIterations() > 0);
+    }
+
+    private static RuntimeOptions runtimeOptions(String tags) {
+        return new CucumberPropertiesParser()
+                .parse(Collections.singletonMap("cucumber.filter.tags", tags))
+                .build(new RuntimeOptionsBuilder()
+                        .addFeature(FeatureWithLines.parse("src/test/resources/features"))
+                        .addGlue(GluePath.parse("stepDefinitions"))
+                        .addGlue(GluePath.parse("hooks"))
+                        .setNoSummary()
+                        .build());
+    }
+
+    @AfterClass
+    public static void stopStandIn() {
+        if (standInServer != null) {
+            standInServer.stop();
+        }
+    }
+}
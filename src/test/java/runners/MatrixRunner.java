@@ -0,0 +1,151 @@
+package runners;
+
+import config.ConfigManager;
+import driver.BrowserContext;
+import driver.BrowserSpec;
+import io.cucumber.core.cli.Main;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.TaskExecutors;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Chạy toàn bộ feature trên nhiều trình duyệt cùng lúc (matrix.browsers), mỗi trình duyệt một pool driver riêng.
+ * Kết quả của từng trình duyệt nằm trong target/cucumber-reports/{browser}, bảng so sánh thời gian từng step
+ * được ghi ra target/cucumber-reports/matrix-comparison.md.
+ *
+ * Chạy: mvn test -Pmatrix -Dmatrix.browsers=chrome,firefox
+ */
+public class MatrixRunner {
+    private static final Logger logger = LoggerFactory.getLogger(MatrixRunner.class);
+    private static final Path REPORTS_DIR = Paths.get("target", "cucumber-reports");
+    private static final String RESULTS_FILE = "results.ndjson";
+
+    @Test
+    public void runMatrix() throws Exception {
+        List<BrowserSpec> browsers = new ArrayList<>();
+        for (String browser : ConfigManager.getInstance().getMatrixBrowsers()) {
+            browsers.add(BrowserSpec.parse(browser));
+        }
+        logger.info("Running browser matrix: {}", browsers);
+
+        ExecutorService executor = TaskExecutors.newExecutor("matrix", browsers.size());
+        Map<BrowserSpec, Future<Byte>> runs = new LinkedHashMap<>();
+        try {
+            for (BrowserSpec browser : browsers) {
+                runs.put(browser, executor.submit(() -> runFor(browser)));
+            }
+            Map<BrowserSpec, Byte> exitStatuses = new LinkedHashMap<>();
+            for (Map.Entry<BrowserSpec, Future<Byte>> run : runs.entrySet()) {
+                exitStatuses.put(run.getKey(), run.getValue().get());
+            }
+
+            writeComparison(browsers);
+            for (Map.Entry<BrowserSpec, Byte> status : exitStatuses.entrySet()) {
+                Assert.assertEquals("Scenarios failed on " + status.getKey(), 0, (byte) status.getValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte runFor(BrowserSpec browser) {
+        BrowserContext.set(browser);
+        try {
+            String[] args = {
+                    "--glue", "stepDefinitions",
+                    "--glue", "hooks",
+                    "--plugin", "reporting.StreamingResultsPlugin:" + REPORTS_DIR.resolve(browser.getLabel()),
+                    "--plugin", "reporting.ProgressPlugin",
+                    "--plugin", "driver.PrewarmPlugin",
+                    "--plugin", "reporting.ResourceUsagePlugin:" + REPORTS_DIR.resolve(browser.getLabel()),
+                    "--threads", String.valueOf(ConfigManager.getInstance().getParallelThreads()),
+                    "--monochrome",
+                    "src/test/resources/features"
+            };
+            return Main.run(args, Thread.currentThread().getContextClassLoader());
+        } finally {
+            BrowserContext.clear();
+        }
+    }
+
+    /**
+     * So sánh thời gian trung bình của từng step giữa các trình duyệt, trình duyệt đầu tiên làm mốc
+     */
+    private static void writeComparison(List<BrowserSpec> browsers) throws IOException {
+        Map<String, Map<BrowserSpec, double[]>> stepDurations = new TreeMap<>();
+        for (BrowserSpec browser : browsers) {
+            Path results = REPORTS_DIR.resolve(browser.getLabel()).resolve(RESULTS_FILE);
+            if (!Files.exists(results)) {
+                logger.warn("No results found for {} at {}", browser, results);
+                continue;
+            }
+            for (String line : Files.readAllLines(results, StandardCharsets.UTF_8)) {
+                Map<String, Object> record = new Json().toType(line, Json.MAP_TYPE);
+                if (!"scenario_finished".equals(record.get("event"))) {
+                    continue;
+                }
+                for (Object item : (List<?>) record.get("steps")) {
+                    Map<?, ?> step = (Map<?, ?>) item;
+                    if (!"step".equals(step.get("type"))) {
+                        continue;
+                    }
+                    double[] sumAndCount = stepDurations
+                            .computeIfAbsent(String.valueOf(step.get("text")), text -> new LinkedHashMap<>())
+                            .computeIfAbsent(browser, spec -> new double[2]);
+                    sumAndCount[0] += ((Number) step.get("durationMs")).doubleValue();
+                    sumAndCount[1]++;
+                }
+            }
+        }
+
+        BrowserSpec baseline = browsers.get(0);
+        List<String> report = new ArrayList<>();
+        StringBuilder header = new StringBuilder("| Step |");
+        StringBuilder separator = new StringBuilder("|---|");
+        for (BrowserSpec browser : browsers) {
+            header.append(' ').append(browser.getLabel()).append(" (ms) |");
+            separator.append("---|");
+        }
+        report.add(header.toString());
+        report.add(separator.toString());
+        for (Map.Entry<String, Map<BrowserSpec, double[]>> step : stepDurations.entrySet()) {
+            double[] base = step.getValue().get(baseline);
+            StringBuilder row = new StringBuilder("| ").append(step.getKey().replace("|", "\\|")).append(" |");
+            for (BrowserSpec browser : browsers) {
+                double[] sumAndCount = step.getValue().get(browser);
+                if (sumAndCount == null) {
+                    row.append(" - |");
+                    continue;
+                }
+                double mean = sumAndCount[0] / sumAndCount[1];
+                row.append(String.format(" %.0f", mean));
+                if (base != null && !browser.equals(baseline)) {
+                    row.append(String.format(" (%+.0f)", mean - base[0] / base[1]));
+                }
+                row.append(" |");
+            }
+            report.add(row.toString());
+        }
+
+        Path comparison = REPORTS_DIR.resolve("matrix-comparison.md");
+        Files.createDirectories(REPORTS_DIR);
+        Files.write(comparison, report, StandardCharsets.UTF_8);
+        logger.info("Browser comparison written to {}", comparison.toAbsolutePath());
+    }
+}
@@ -0,0 +1,82 @@
+package runners;
+
+import config.ConfigManager;
+import driver.BrowserContext;
+import driver.DriverPool;
+import io.cucumber.core.feature.FeatureWithLines;
+import io.cucumber.core.feature.GluePath;
+import io.cucumber.core.options.CucumberProperties;
+import io.cucumber.core.options.CucumberPropertiesParser;
+import io.cucumber.core.options.RuntimeOptions;
+import io.cucumber.core.options.RuntimeOptionsBuilder;
+import io.cucumber.core.runtime.Runtime;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.PageReuse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chạy feature theo thứ tự do StateAwarePickleOrder lên lịch thay vì thứ tự file,
+ * để scenario sau bắt đầu ở trang mà driver trong pool đang mở, với ít lần điều hướng nhất.
+ * Thứ tự, số lần chuyển trang dự kiến và số lần PageReuse thực sự dùng lại trang được ghi ra
+ * target/cucumber-reports/schedule.md.
+ *
+ * Chạy: mvn test -Pscheduled -Ddriver.reuse=true (không giữ driver thì trang không được chuyển tiếp)
+ */
+public class ScheduledRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledRunner.class);
+    private static final Path REPORTS_DIR = Paths.get("target", "cucumber-reports");
+
+    @Test
+    public void runScheduled() throws Exception {
+        StateAwarePickleOrder order = new StateAwarePickleOrder();
+        RuntimeOptions baseOptions = new RuntimeOptionsBuilder()
+                .addFeature(FeatureWithLines.parse("src/test/resources/features"))
+                .addGlue(GluePath.parse("stepDefinitions"))
+                .addGlue(GluePath.parse("hooks"))
+                .addPluginName("pretty")
+                .addPluginName("reporting.StreamingResultsPlugin:" + REPORTS_DIR)
+                .addPluginName("reporting.ProgressPlugin")
+                .addPluginName("driver.PrewarmPlugin")
+                .addPluginName("impact.ImpactMapPlugin")
+                .addPluginName("reporting.PerformanceTrendPlugin:" + REPORTS_DIR)
+                .addPluginName("reporting.ResourceUsagePlugin:" + REPORTS_DIR)
+                .setMonochrome()
+                .setPickleOrder(order)
+                .build();
+        // Cho phép lọc bằng -Dcucumber.filter.tags=... như khi chạy TestRunner
+        RuntimeOptions options = new CucumberPropertiesParser()
+                .parse(CucumberProperties.fromSystemProperties())
+                .build(baseOptions);
+
+        Runtime runtime = Runtime.builder()
+                .withRuntimeOptions(options)
+                .withClassLoader(() -> Thread.currentThread().getContextClassLoader())
+                .build();
+        runtime.run();
+
+        List<String> report = new ArrayList<>(order.describeSchedule());
+        if (!ConfigManager.getInstance().isDriverReuse()) {
+            report.add("driver.reuse=false: each scenario gets a new browser, so no page handoff actually happened");
+        }
+        report.add("Driver pool: " + DriverPool.forBrowser(BrowserContext.current()).getStats()
+                + " (driver.reuse=" + ConfigManager.getInstance().isDriverReuse() + ")");
+        report.add("Background " + PageReuse.getStats()
+                + " (background.memoize=" + ConfigManager.getInstance().isBackgroundMemoize() + ")");
+        Path schedule = REPORTS_DIR.resolve("schedule.md");
+        Files.createDirectories(REPORTS_DIR);
+        Files.write(schedule, report, StandardCharsets.UTF_8);
+        logger.info("Scenario schedule: {}", order.getReuseCounts());
+        logger.info("Schedule report written to {}", schedule.toAbsolutePath());
+
+        Assert.assertEquals("Some scenarios failed", 0, runtime.exitStatus());
+    }
+}
@@ -0,0 +1,187 @@
+package runners;
+
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.core.order.PickleOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sắp xếp scenario theo trang bắt đầu và trang để lại khi kết thúc, để scenario sau bắt đầu đúng ở trang
+ * scenario trước để lại (PageReuse dùng lại trang đó thay vì điều hướng, khi driver.reuse=true).
+ * Trạng thái đăng nhập không được tính: DriverPool xoá cookie và storage giữa các scenario.
+ * Trang được suy ra từ câu step:
+ *   "I navigate to the X page"            -> bắt đầu ở trang X (step Background)
+ *   "I should be redirected to the X"     -> kết thúc ở trang X
+ */
+public class StateAwarePickleOrder implements PickleOrder {
+    private static final Pattern START_PAGE = Pattern.compile("I navigate to the (\\w+) page");
+    private static final Pattern END_PAGE = Pattern.compile("I should be redirected to the (\\w+)(?: page)?");
+
+    private final List<ScheduledPickle> schedule = new ArrayList<>();
+    private int fileOrderReuse;
+
+    @Override
+    public synchronized List<Pickle> orderPickles(List<Pickle> pickles) {
+        List<ScheduledPickle> remaining = new ArrayList<>();
+        for (Pickle pickle : pickles) {
+            remaining.add(new ScheduledPickle(pickle));
+        }
+        fileOrderReuse = countReuse(remaining);
+
+        schedule.clear();
+        String current = null;
+        while (!remaining.isEmpty()) {
+            ScheduledPickle next = pickNext(current, remaining);
+            remaining.remove(next);
+            next.reusesPrevious = next.start != null && next.start.equals(current);
+            schedule.add(next);
+            current = next.end;
+        }
+
+        List<Pickle> ordered = new ArrayList<>();
+        for (ScheduledPickle scheduled : schedule) {
+            ordered.add(scheduled.pickle);
+        }
+        return ordered;
+    }
+
+    /**
+     * Ưu tiên scenario bắt đầu đúng ở trạng thái hiện tại và giữ nguyên trạng thái đó;
+     * nếu không có, bắt đầu nhóm mà không scenario nào khác dẫn tới được
+     */
+    private static ScheduledPickle pickNext(String current, List<ScheduledPickle> remaining) {
+        ScheduledPickle compatible = null;
+        for (ScheduledPickle candidate : remaining) {
+            if (!Objects.equals(candidate.start, current)) {
+                continue;
+            }
+            if (candidate.isStateKeeping()) {
+                return candidate;
+            }
+            if (compatible == null || (!leadsSomewhere(compatible, remaining) && leadsSomewhere(candidate, remaining))) {
+                compatible = candidate;
+            }
+        }
+        if (compatible != null) {
+            return compatible;
+        }
+
+        ScheduledPickle source = null;
+        for (ScheduledPickle candidate : remaining) {
+            if (isReachable(candidate.start, remaining)) {
+                continue;
+            }
+            if (candidate.isStateKeeping()) {
+                return candidate;
+            }
+            if (source == null) {
+                source = candidate;
+            }
+        }
+        return source != null ? source : remaining.get(0);
+    }
+
+    private static boolean leadsSomewhere(ScheduledPickle pickle, List<ScheduledPickle> remaining) {
+        for (ScheduledPickle other : remaining) {
+            if (other != pickle && Objects.equals(other.start, pickle.end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReachable(String page, List<ScheduledPickle> remaining) {
+        for (ScheduledPickle other : remaining) {
+            if (!other.isStateKeeping() && Objects.equals(other.end, page)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int countReuse(List<ScheduledPickle> order) {
+        int reuse = 0;
+        String current = null;
+        for (ScheduledPickle pickle : order) {
+            if (pickle.start != null && pickle.start.equals(current)) {
+                reuse++;
+            }
+            current = pickle.end;
+        }
+        return reuse;
+    }
+
+    /**
+     * Thứ tự đã lên lịch kèm trạng thái, dùng cho báo cáo
+     */
+    public synchronized List<String> describeSchedule() {
+        List<String> lines = new ArrayList<>();
+        lines.add("| # | Scenario | Start page | End page | Starts where previous ended |");
+        lines.add("|---|---|---|---|---|");
+        for (int i = 0; i < schedule.size(); i++) {
+            ScheduledPickle scheduled = schedule.get(i);
+            lines.add(String.format("| %d | %s (%s:%d) | %s | %s | %s |", i + 1,
+                    scheduled.pickle.getName(), fileName(scheduled.pickle), scheduled.pickle.getLocation().getLine(),
+                    pageName(scheduled.start), pageName(scheduled.end), scheduled.reusesPrevious ? "yes" : "no"));
+        }
+        lines.add("");
+        lines.add(String.format("Page handoffs: %d of %d scenarios (file order: %d)",
+                countReuse(schedule), schedule.size(), fileOrderReuse));
+        return Collections.unmodifiableList(lines);
+    }
+
+    public synchronized Map<String, Integer> getReuseCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("scenarios", schedule.size());
+        counts.put("scheduled", countReuse(schedule));
+        counts.put("fileOrder", fileOrderReuse);
+        return counts;
+    }
+
+    private static String pageName(String page) {
+        return page == null ? "-" : page;
+    }
+
+    private static String fileName(Pickle pickle) {
+        String path = pickle.getUri().toString();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static final class ScheduledPickle {
+        private final Pickle pickle;
+        private final String start;
+        private final String end;
+        private boolean reusesPrevious;
+
+        private ScheduledPickle(Pickle pickle) {
+            this.pickle = pickle;
+            String startPage = null;
+            String endPage = null;
+            for (Step step : pickle.getSteps()) {
+                String text = step.getText();
+                Matcher startPageMatcher = START_PAGE.matcher(text);
+                if (startPage == null && startPageMatcher.matches()) {
+                    startPage = startPageMatcher.group(1);
+                }
+                Matcher endPageMatcher = END_PAGE.matcher(text);
+                if (endPageMatcher.matches()) {
+                    endPage = endPageMatcher.group(1);
+                }
+            }
+            this.start = startPage;
+            this.end = endPage != null ? endPage : startPage;
+        }
+
+        private boolean isStateKeeping() {
+            return Objects.equals(start, end);
+        }
+    }
+}
@@ -8,7 +8,16 @@ import org.junit.runner.RunWith;
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = {"stepDefinitions", "hooks"},
-        plugin = {"pretty", "json:target/cucumber-reports/Cucumber.json"},
+        plugin = {
+                "pretty",
+                "reporting.StreamingResultsPlugin:target/cucumber-reports",
+                "reporting.ProgressPlugin",
+                "driver.PrewarmPlugin",
+                "impact.ImpactMapPlugin",
+                "reporting.PerformanceTrendPlugin:target/cucumber-reports",
+                "reporting.ResourceUsagePlugin:target/cucumber-reports",
+                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+        },
         monochrome = true
 //        tags = "@invalid-input or @invalid-credentials"
 )
@@ -1,20 +1,27 @@
 package stepDefinitions;
 
-import base.BasePage;
-import components.NavComponent;
+import api.ApiForm;
+import api.ApiLoginForm;
+import api.ApiRegisterForm;
+import base.FormPage;
 import components.ToastNotificationComponent;
 import config.ConfigManager;
 import context.TestContext;
+import data.TestDataGenerator;
 import hooks.Hooks;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
+import logging.BrowserLogCollector;
+import org.junit.Assume;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pages.LoginPage;
 import pages.RegisterPage;
+import utils.PageStateSnapshot;
+import utils.ToastLog;
 
 import java.util.List;
 
@@ -23,38 +30,46 @@ import static org.junit.Assert.*;
 public class CommonSteps {
     private static final Logger logger = LoggerFactory.getLogger(CommonSteps.class);
     private final WebDriver driver;
-    private BasePage currentPage;
+    private FormPage currentPage;
     private final TestContext testContext;
-    private final NavComponent navComponent;
 
     public CommonSteps(Hooks hooks) {
         this.driver = hooks.getDriver();
         this.testContext = hooks.getTestContext();
-        this.navComponent = new NavComponent(driver);
     }
 
     @Given("I navigate to the login page")
     public void navigateToLoginPage() {
         logger.info("Navigating to login page");
-        LoginPage loginPage = new LoginPage(driver);
-        loginPage.navigateTo();
-        currentPage = loginPage;
+        if (isApiMode()) {
+            currentPage = new ApiLoginForm();
+            currentPage.navigateTo();
+        } else {
+            LoginPage loginPage = new LoginPage(driver);
+            loginPage.navigateToOrReuse();
+            currentPage = loginPage;
+        }
         testContext.getScenarioContext().setContext("currentPage", currentPage);
     }
     
     @Given("I navigate to the register page")
     public void navigateToRegisterPage() {
         logger.info("Navigating to register page");
-        RegisterPage registerPage = new RegisterPage(driver);
-        registerPage.navigateTo();
-        currentPage = registerPage;
+        if (isApiMode()) {
+            currentPage = new ApiRegisterForm();
+            currentPage.navigateTo();
+        } else {
+            RegisterPage registerPage = new RegisterPage(driver);
+            registerPage.navigateToOrReuse();
+            currentPage = registerPage;
+        }
         testContext.getScenarioContext().setContext("currentPage", currentPage);
     }
 
     @When("I enter {string} in the {string} field")
     public void enterTextField(String text, String fieldName) {
         logger.info("Entering text '{}' in the {} field", text, fieldName);
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
+        currentPage = (FormPage) testContext.getScenarioContext().getContext("currentPage");
         currentPage.enterText(text, fieldName);
         
         // Store value for later verification
@@ -63,18 +78,18 @@ public class CommonSteps {
 
     @When("I enter random user in the username field")
     public void enterRandomUsername() {
-        String randomUsername = "user_" + System.currentTimeMillis();
+        String randomUsername = TestDataGenerator.uniqueUsername();
         logger.info("Entering random username: {}", randomUsername);
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
+        currentPage = (FormPage) testContext.getScenarioContext().getContext("currentPage");
         currentPage.enterText(randomUsername, "username");
         testContext.getScenarioContext().setContext("username", randomUsername);
     }
     
     @When("I enter random password in the password field")
     public void enterRandomPassword() {
-        String randomPassword = "password_" + System.currentTimeMillis();
+        String randomPassword = TestDataGenerator.randomPassword();
         logger.info("Entering random password: ******");
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
+        currentPage = (FormPage) testContext.getScenarioContext().getContext("currentPage");
         currentPage.enterText(randomPassword, "password");
         testContext.getScenarioContext().setContext("password", randomPassword);
     }
@@ -82,105 +97,76 @@ public class CommonSteps {
     @And("I click the login button")
     public void clickLoginButton() {
         logger.info("Clicking login button");
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
+        currentPage = (FormPage) testContext.getScenarioContext().getContext("currentPage");
         currentPage.clickButton("sign in");
     }
     
     @And("I click the register button")
     public void clickRegisterButton() {
         logger.info("Clicking register button");
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
+        currentPage = (FormPage) testContext.getScenarioContext().getContext("currentPage");
         currentPage.clickButton("register");
     }
 
     @Then("I should be redirected to the dashboard")
     public void verifyDashboardRedirection() {
         logger.info("Verifying redirection to dashboard");
-        String expectedUrl = "https://spring-auth.vercel.app/";
-        String actualUrl = driver.getCurrentUrl();
-        assertEquals("Expected to be redirected to dashboard", expectedUrl, actualUrl);
-        assertTrue("Expected to be logged in", navComponent.isLoggedIn());
+        assumeBrowserMode();
+        String expectedUrl = ConfigManager.getInstance().getBaseUrl() + "/";
+        PageStateSnapshot snapshot = PageStateSnapshot.waitFor(driver, ConfigManager.getInstance().getExplicitWait(),
+                state -> expectedUrl.equals(state.getUrl()) && state.isLoggedIn());
+        assertEquals("Expected to be redirected to dashboard", expectedUrl, snapshot.getUrl());
+        assertTrue("Expected to be logged in: " + snapshot, snapshot.isLoggedIn());
     }
     
     @Then("I should be redirected to the login page")
     public void verifyLoginPageRedirection() {
         logger.info("Verifying redirection to login page");
-        String expectedUrl = "https://spring-auth.vercel.app/login";
-        String actualUrl = driver.getCurrentUrl();
-        assertEquals("Expected to be redirected to login page", expectedUrl, actualUrl);
+        assumeBrowserMode();
+        String expectedUrl = ConfigManager.getInstance().getBaseUrl() + "/login";
+        PageStateSnapshot snapshot = PageStateSnapshot.waitFor(driver, ConfigManager.getInstance().getExplicitWait(),
+                state -> expectedUrl.equals(state.getUrl()));
+        assertEquals("Expected to be redirected to login page", expectedUrl, snapshot.getUrl());
     }
 
     @Then("I should see a message {string}")
     public void verifyMessage(String expectedMessage) {
         logger.info("Verifying message: {}", expectedMessage);
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
-        
-        // Cho phép toast message có thời gian xuất hiện (tối đa 1 giây)
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            // Bỏ qua
-        }
-        
-        // Xác định loại thông báo dựa trên nội dung
-        boolean isSuccessMessage = expectedMessage.toLowerCase().contains("success") || 
-                                 expectedMessage.toLowerCase().contains("successful");
-                                 
+        // Thông báo chứa "success" là thông báo thành công, còn lại là thông báo lỗi
+        boolean isSuccessMessage = expectedMessage.toLowerCase().contains("success");
         String messageType = isSuccessMessage ? "success" : "error";
-        logger.debug("Expected message type: {}", messageType);
-        
-        // Kiểm tra phiên bản trực tiếp từ trang
-        if (!currentPage.isMessageDisplayed(messageType)) {
-            // Log thông tin debug để trợ giúp chẩn đoán
-            logger.warn("Message of type '{}' not immediately displayed, checking message content", messageType);
-            
-            // Kiểm tra nội dung thông báo trực tiếp
-            String actualMessage = currentPage.getMessage();
-            if (actualMessage != null && !actualMessage.isEmpty()) {
-                logger.debug("Found message: {}", actualMessage);
-                assertTrue("Expected message to contain: " + expectedMessage + ", but was: " + actualMessage, 
-                          actualMessage.contains(expectedMessage));
-                return;
-            }
-            
-            // Nếu không tìm thấy thông báo, kiểm tra lại loại thông báo
-            boolean isDisplayed = isSuccessMessage ? 
-                                 currentPage.isMessageDisplayed("success") : 
-                                 currentPage.isMessageDisplayed("error");
-                                 
-            assertTrue("Expected a " + messageType + " message to be displayed", isDisplayed);
+        if (isApiMode()) {
+            String message = currentForm().getMessage();
+            assertTrue("Expected message to contain: " + expectedMessage + ", but response message was: " + message,
+                       message.contains(expectedMessage));
+            assertTrue("Expected a " + messageType + " response (status " + ((ApiForm) currentForm()).getStatus() + ")",
+                       currentForm().isMessageDisplayed(messageType));
+            return;
+        }
+
+        // Chỉ tính toast xuất hiện từ lần submit gần nhất (page đặt mốc ngay trước khi bấm nút)
+        ToastLog toastLog = ToastLog.forDriver(driver);
+        long mark = toastLog.getLastMark();
+        ToastLog.Toast toast = toastLog.waitFor(mark, ConfigManager.getInstance().getExplicitWait(),
+                candidate -> candidate.contains(expectedMessage));
+        assertNotNull("Expected a toast containing: " + expectedMessage + " since the last submit, but got: "
+                      + toastLog.since(mark) + ", page state: " + PageStateSnapshot.capture(driver), toast);
+        assertTrue("Expected a " + messageType + " toast, but was: " + toast,
+                   isSuccessMessage ? toast.isSuccess() : toast.isError());
+
+        // Thông báo thành công thì không được có lỗi form
+        if (isSuccessMessage) {
+            PageStateSnapshot snapshot = PageStateSnapshot.capture(driver);
+            assertTrue("Expected no form errors with a success message, but found: " + snapshot.getFormErrors(),
+                       snapshot.getFormErrors().isEmpty());
         }
-        
-        // Kiểm tra nội dung thông báo
-        String actualMessage = currentPage.getMessage();
-        assertTrue("Expected message to contain: " + expectedMessage + ", but was: " + actualMessage, 
-                   actualMessage != null && actualMessage.contains(expectedMessage));
     }
 
     @Then("I should see error messages containing {string}")
     public void verifyErrorMessages(String expectedErrorsStr) {
         logger.info("Verifying error messages containing: {}", expectedErrorsStr);
-        currentPage = (BasePage) testContext.getScenarioContext().getContext("currentPage");
-        
-        // Lấy danh sách lỗi từ form trước (không đợi toast)
-        List<String> actualErrors = currentPage.getErrorMessages();
-        
-        // Kiểm tra xem có lỗi form không
-        if (actualErrors.isEmpty()) {
-            // Cho phép toast có thời gian xuất hiện
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                // Bỏ qua
-            }
-            
-            // Nếu không có lỗi form, mới kiểm tra toast
-            assertTrue("Expected error messages to be displayed", currentPage.isMessageDisplayed("error"));
-            
-            // Nếu không có lỗi form nhưng có toast error, lấy message từ toast
-            String toastMessage = currentPage.getMessage();
-            actualErrors = List.of(toastMessage);
-        }
+
+        List<String> actualErrors = isApiMode() ? responseErrors() : displayedErrors();
         
         // Split expected errors if multiple
         String[] expectedErrors = expectedErrorsStr.split(",\\s*");
@@ -210,4 +196,57 @@ public class CommonSteps {
                       " in actual errors: " + actualErrors, found);
         }
     }
+
+    @Then("there should be no console errors")
+    public void verifyNoConsoleErrors() {
+        assertTrue("Browser log collection is off: run with -Pbrowser-logs (browserLogs.enabled=true)",
+                ConfigManager.getInstance().isBrowserLogs());
+        List<BrowserLogCollector.Entry> errors = BrowserLogCollector.forDriver(driver).getErrors();
+        assertTrue("Expected no browser console errors, but found: " + errors, errors.isEmpty());
+    }
+
+    /**
+     * Lỗi form đang hiển thị, nếu không có thì lấy toast lỗi từ lần submit gần nhất (chờ một trong hai xuất hiện)
+     */
+    private List<String> displayedErrors() {
+        ToastLog toastLog = ToastLog.forDriver(driver);
+        long mark = toastLog.getLastMark();
+        PageStateSnapshot snapshot = PageStateSnapshot.waitFor(driver, ConfigManager.getInstance().getExplicitWait(),
+                state -> !state.getFormErrors().isEmpty() || !toastLog.since(mark).isEmpty());
+
+        // Ưu tiên lỗi form, nếu không có mới lấy message từ toast
+        List<String> actualErrors = snapshot.getFormErrors();
+        if (actualErrors.isEmpty()) {
+            ToastLog.Toast toast = toastLog.latestSince(mark);
+            assertNotNull("Expected error messages to be displayed, but page state was: " + snapshot, toast);
+            assertTrue("Expected an error toast, but was: " + toast, toast.isError());
+            actualErrors = List.of(toast.getText());
+        }
+        return actualErrors;
+    }
+
+    /**
+     * Lỗi validate trong response, nếu không có thì lấy message của response
+     */
+    private List<String> responseErrors() {
+        FormPage form = currentForm();
+        List<String> actualErrors = form.getErrorMessages();
+        if (actualErrors.isEmpty()) {
+            assertTrue("Expected an error response, but got no message", !form.getMessage().isEmpty());
+            actualErrors = List.of(form.getMessage());
+        }
+        return actualErrors;
+    }
+
+    private FormPage currentForm() {
+        return (FormPage) testContext.getScenarioContext().getContext("currentPage");
+    }
+
+    private static boolean isApiMode() {
+        return ConfigManager.getInstance().isApiMode();
+    }
+
+    private static void assumeBrowserMode() {
+        Assume.assumeFalse("UI-only step, skipped in binding.mode=api", isApiMode());
+    }
 }
@@ -1,7 +1,11 @@
 package stepDefinitions;
 
 import components.NavComponent;
+import config.ConfigManager;
 import context.TestContext;
+import data.UiUserProvisioner;
+import data.UserData;
+import data.UserPool;
 import hooks.Hooks;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
@@ -11,6 +15,7 @@ import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pages.LoginPage;
+import utils.PageStateSnapshot;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -32,7 +37,17 @@ public class LoginSteps {
     @When("I login with valid credentials")
     public void loginWithValidCredentials() {
         logger.info("Logging in with valid credentials");
-        loginPage.login("user", "123456");
+        UserPool userPool = UserPool.getInstance();
+        boolean provisionedNow = !userPool.isProvisioned();
+        UserData user = userPool.lease(new UiUserProvisioner(driver));
+        testContext.getScenarioContext().setContext("leasedUser", user);
+        testContext.getScenarioContext().setContext("username", user.getUsername());
+
+        // Việc tạo user qua UI làm trình duyệt rời khỏi trang login
+        if (provisionedNow) {
+            loginPage.navigateTo();
+        }
+        loginPage.login(user.getUsername(), user.getPassword());
     }
     
     @Then("I should see welcome message with my username")
@@ -43,7 +58,10 @@ public class LoginSteps {
             username = "user"; // Default if not set
         }
         
-        String welcomeMessage = navComponent.getWelcomeMessage();
+        String expectedUsername = username;
+        PageStateSnapshot snapshot = PageStateSnapshot.waitFor(driver, ConfigManager.getInstance().getExplicitWait(),
+                state -> state.getWelcomeText() != null && state.getWelcomeText().contains(expectedUsername));
+        String welcomeMessage = snapshot.getWelcomeText();
         assertTrue("Welcome message should contain username", 
                    welcomeMessage != null && welcomeMessage.contains(username));
     }
@@ -51,6 +69,8 @@ public class LoginSteps {
     @Then("I should be logged in")
     public void verifyLoggedIn() {
         logger.info("Verifying user is logged in");
-        assertTrue("User should be logged in", navComponent.isLoggedIn());
+        PageStateSnapshot snapshot = PageStateSnapshot.waitFor(driver, ConfigManager.getInstance().getExplicitWait(),
+                PageStateSnapshot::isLoggedIn);
+        assertTrue("User should be logged in: " + snapshot, snapshot.isLoggedIn());
     }
 }
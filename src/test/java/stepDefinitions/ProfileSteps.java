@@ -10,7 +10,7 @@ public class ProfileSteps {
 
     public ProfileSteps(Hooks hooks) {
         this.driver = hooks.getDriver();
-        this.configManager = new ConfigManager();
+        this.configManager = ConfigManager.getInstance();
     }
 
 }
@@ -1,8 +1,10 @@
 package stepDefinitions;
 
-import com.github.javafaker.Faker;
 import components.NavComponent;
+import config.ConfigManager;
 import context.TestContext;
+import data.TestDataGenerator;
+import data.UserData;
 import hooks.Hooks;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -10,8 +12,10 @@ import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pages.RegisterPage;
+import utils.ToastLog;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class RegisterSteps {
@@ -20,7 +24,6 @@ public class RegisterSteps {
     private final RegisterPage registerPage;
     private final TestContext testContext;
     private final NavComponent navComponent;
-    private final Faker faker = new Faker();
 
     public RegisterSteps(Hooks hooks) {
         this.driver = hooks.getDriver();
@@ -32,9 +35,10 @@ public class RegisterSteps {
     @When("I register with random credentials")
     public void registerWithRandomCredentials() {
         logger.info("Registering with random credentials");
-        String username = faker.name().username();
-        String email = faker.internet().emailAddress();
-        String password = faker.internet().password(8, 20, true, true);
+        UserData user = TestDataGenerator.nextUser();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        String password = user.getPassword();
         
         logger.info("Generated random username: {}", username);
         logger.info("Generated random email: {}", email);
@@ -54,8 +58,8 @@ public class RegisterSteps {
         logger.info("Registering with existing username");
         // Sử dụng username cố định đã tồn tại
         String username = "user";
-        String email = faker.internet().emailAddress();
-        String password = faker.internet().password(8, 20, true, true);
+        String email = TestDataGenerator.uniqueEmail();
+        String password = TestDataGenerator.randomPassword();
         
         logger.info("Using existing username: {}", username);
         logger.info("Generated random email: {}", email);
@@ -69,9 +73,9 @@ public class RegisterSteps {
     public void registerWithExistingEmail() {
         logger.info("Registering with existing email");
         // Sử dụng email cố định đã tồn tại
-        String username = faker.name().username();
+        String username = TestDataGenerator.uniqueUsername();
         String email = "user@example.com";
-        String password = faker.internet().password(8, 20, true, true);
+        String password = TestDataGenerator.randomPassword();
         
         logger.info("Generated random username: {}", username);
         logger.info("Using existing email: {}", email);
@@ -101,7 +105,7 @@ public class RegisterSteps {
     
     @When("I enter a random username")
     public void enterRandomUsername() {
-        String username = faker.name().username();
+        String username = TestDataGenerator.uniqueUsername();
         logger.info("Entering random username: {}", username);
         registerPage.enterUsername(username);
         testContext.getScenarioContext().setContext("username", username);
@@ -109,7 +113,7 @@ public class RegisterSteps {
     
     @When("I enter a random email")
     public void enterRandomEmail() {
-        String email = faker.internet().emailAddress();
+        String email = TestDataGenerator.uniqueEmail();
         logger.info("Entering random email: {}", email);
         registerPage.enterEmail(email);
         testContext.getScenarioContext().setContext("email", email);
@@ -117,7 +121,7 @@ public class RegisterSteps {
     
     @When("I enter a random password")
     public void enterRandomPassword() {
-        String password = faker.internet().password(8, 20, true, true);
+        String password = TestDataGenerator.randomPassword();
         logger.info("Entering random password: ******");
         registerPage.enterPassword(password);
         testContext.getScenarioContext().setContext("password", password);
@@ -127,17 +131,13 @@ public class RegisterSteps {
     public void verifyRegistrationSuccessful() {
         logger.info("Verifying registration successful message");
         
-        // Cho phép toast có thời gian xuất hiện
-        try {
-            Thread.sleep(300);
-        } catch (InterruptedException e) {
-            // Bỏ qua
-        }
-        
-        assertTrue("Expected registration success message", 
-                   registerPage.isMessageDisplayed("success"));
-        String message = registerPage.getMessage();
-        assertTrue("Expected message to contain registration successful text", 
-                   message != null && message.contains("Registration successful! Please login."));
+        String expectedMessage = "Registration successful! Please login.";
+        ToastLog toastLog = ToastLog.forDriver(driver);
+        long mark = toastLog.getLastMark();
+        ToastLog.Toast toast = toastLog.waitFor(mark, ConfigManager.getInstance().getExplicitWait(),
+                candidate -> candidate.contains(expectedMessage));
+        assertNotNull("Expected registration success message since the last submit, but got: " + toastLog.since(mark),
+                      toast);
+        assertTrue("Expected a success toast, but was: " + toast, toast.isSuccess());
     }
 } 
\ No newline at end of file
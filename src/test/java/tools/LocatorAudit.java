@@ -0,0 +1,267 @@
+package tools;
+
+import config.ConfigManager;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.FallbackBy;
+import utils.FindByChain;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Công cụ kiểm tra locator: quét mọi @FindBy/@FindByChain trong package pages và components,
+ * đo thời gian từng locator trên trang thật (hoặc trang stand-in) và đề xuất CSS tương đương.
+ *
+ * Chạy:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.LocatorAudit
+ *   -Daudit.standin=true      : dùng các trang HTML stand-in trong src/test/resources/standin
+ *   -Daudit.urls=url1,url2    : danh sách trang cần kiểm tra
+ */
+public class LocatorAudit {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorAudit.class);
+    private static final String[] SCANNED_PACKAGES = {"pages", "components"};
+    private static final String[] STAND_IN_PAGES = {"standin/login.html", "standin/register.html", "standin/index.html"};
+    private static final int ROUND_TRIPS = 5;
+    private static final int IN_BROWSER_ITERATIONS = 200;
+    private static final Path REPORT = Paths.get("target", "locator-audit.md");
+
+    // Đo thời gian truy vấn ngay trong trình duyệt để loại bỏ độ trễ WebDriver
+    private static final String IN_BROWSER_TIMING_SCRIPT =
+            "var type = arguments[0], value = arguments[1], n = arguments[2];"
+            + "var start = performance.now();"
+            + "for (var i = 0; i < n; i++) {"
+            + "  if (type === 'css') { document.querySelectorAll(value); }"
+            + "  else { document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null); }"
+            + "}"
+            + "return (performance.now() - start) * 1000 / n;";
+
+    // Sinh CSS selector duy nhất từ thuộc tính của element đã tìm thấy
+    private static final String SUGGEST_CSS_SCRIPT =
+            "var el = arguments[0];"
+            + "function unique(sel) { try { var m = document.querySelectorAll(sel); return m.length === 1 && m[0] === el; } catch (e) { return false; } }"
+            + "var tag = el.tagName.toLowerCase(), candidates = [];"
+            + "if (el.getAttribute('data-testid')) candidates.push(\"[data-testid='\" + el.getAttribute('data-testid') + \"']\");"
+            + "if (el.id) candidates.push('#' + CSS.escape(el.id));"
+            + "['name', 'aria-label', 'href', 'type', 'title', 'placeholder'].forEach(function(a) {"
+            + "  var v = el.getAttribute(a); if (v) candidates.push(tag + '[' + a + \"='\" + v.replace(/'/g, \"\\\\'\") + \"']\");"
+            + "});"
+            + "for (var i = 0; i < candidates.length; i++) { if (unique(candidates[i])) return candidates[i]; }"
+            + "var scope = el.closest('nav, form, header, main');"
+            + "if (scope) { for (var j = 0; j < candidates.length; j++) {"
+            + "  var scoped = scope.tagName.toLowerCase() + ' ' + candidates[j]; if (unique(scoped)) return scoped; } }"
+            + "return null;";
+
+    private static final Pattern XPATH_STEP = Pattern.compile("(//|/)([a-zA-Z*][\\w-]*)(\\[(.*?)\\])?");
+    private static final Pattern XPATH_ATTRIBUTE = Pattern.compile("@([\\w-]+)\\s*=\\s*'([^']*)'");
+
+    public static void main(String[] args) throws Exception {
+        List<LocatorEntry> entries = scanLocators();
+        List<String> urls = resolveUrls();
+        logger.info("Auditing {} locators on {} pages", entries.size(), urls.size());
+
+        WebDriver driver = createDriver();
+        List<String> report = new ArrayList<>();
+        report.add("| Page | Field | Locator | Matches | Round trip (ms) | In browser (µs) | Suggested CSS |");
+        report.add("|---|---|---|---|---|---|---|");
+        try {
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            for (String url : urls) {
+                driver.get(url);
+                for (LocatorEntry entry : entries) {
+                    for (By by : entry.candidates()) {
+                        report.add(audit(driver, url, entry, by));
+                    }
+                }
+            }
+        } finally {
+            driver.quit();
+        }
+
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report, StandardCharsets.UTF_8);
+        report.forEach(line -> logger.info(line));
+        logger.info("Locator audit written to {}", REPORT.toAbsolutePath());
+    }
+
+    private static String audit(WebDriver driver, String url, LocatorEntry entry, By by) {
+        long[] samples = new long[ROUND_TRIPS];
+        List<WebElement> found = Collections.emptyList();
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            long start = System.nanoTime();
+            found = driver.findElements(by);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        double roundTripMs = samples[ROUND_TRIPS / 2] / 1_000_000.0;
+
+        String[] typeAndValue = describe(by);
+        String inBrowser = "-";
+        if (typeAndValue != null) {
+            Object micros = ((JavascriptExecutor) driver).executeScript(IN_BROWSER_TIMING_SCRIPT,
+                    typeAndValue[0], typeAndValue[1], IN_BROWSER_ITERATIONS);
+            inBrowser = String.format("%.1f", ((Number) micros).doubleValue());
+        }
+
+        String suggestion = "-";
+        if (typeAndValue != null && "xpath".equals(typeAndValue[0])) {
+            String converted = xpathToCss(typeAndValue[1]);
+            if (converted != null) {
+                suggestion = converted;
+            } else if (!found.isEmpty()) {
+                Object generated = ((JavascriptExecutor) driver).executeScript(SUGGEST_CSS_SCRIPT, found.get(0));
+                suggestion = generated != null
+                        ? generated + " (generated)"
+                        : "[data-testid='" + entry.testIdHint() + "'] (add to app)";
+            } else {
+                suggestion = "[data-testid='" + entry.testIdHint() + "'] (add to app)";
+            }
+        }
+
+        return String.format("| %s | %s | `%s` | %d | %.2f | %s | %s |",
+                pageName(url), entry.name(), by, found.size(), roundTripMs, inBrowser, suggestion);
+    }
+
+    /**
+     * Chuyển XPath chỉ dùng tên thẻ và so sánh thuộc tính sang CSS tương đương tuyệt đối.
+     * Trả về null nếu XPath dùng text(), normalize-space(), contains()... (không có CSS tương đương).
+     */
+    static String xpathToCss(String xpath) {
+        StringBuilder css = new StringBuilder();
+        Matcher step = XPATH_STEP.matcher(xpath);
+        int position = 0;
+        while (step.find()) {
+            if (step.start() != position) {
+                return null;
+            }
+            position = step.end();
+            if (css.length() > 0) {
+                css.append("//".equals(step.group(1)) ? " " : " > ");
+            }
+            css.append("*".equals(step.group(2)) ? "" : step.group(2));
+            String predicate = step.group(4);
+            if (predicate != null) {
+                for (String condition : predicate.split("\\s+and\\s+")) {
+                    Matcher attribute = XPATH_ATTRIBUTE.matcher(condition.trim());
+                    if (!attribute.matches()) {
+                        return null;
+                    }
+                    css.append('[').append(attribute.group(1)).append("='").append(attribute.group(2)).append("']");
+                }
+            }
+        }
+        return position == xpath.length() && css.length() > 0 ? css.toString() : null;
+    }
+
+    private static String[] describe(By by) {
+        String text = by.toString();
+        if (text.startsWith("By.xpath: ")) {
+            return new String[]{"xpath", text.substring("By.xpath: ".length())};
+        }
+        if (text.startsWith("By.cssSelector: ")) {
+            return new String[]{"css", text.substring("By.cssSelector: ".length())};
+        }
+        return null;
+    }
+
+    private static List<LocatorEntry> scanLocators() throws IOException, URISyntaxException, ClassNotFoundException {
+        List<LocatorEntry> entries = new ArrayList<>();
+        ClassLoader classLoader = LocatorAudit.class.getClassLoader();
+        for (String packageName : SCANNED_PACKAGES) {
+            URL packageUrl = classLoader.getResource(packageName);
+            if (packageUrl == null || !"file".equals(packageUrl.getProtocol())) {
+                continue;
+            }
+            File[] classFiles = new File(packageUrl.toURI()).listFiles((dir, name) -> name.endsWith(".class") && !name.contains("$"));
+            if (classFiles == null) {
+                continue;
+            }
+            Arrays.sort(classFiles);
+            for (File classFile : classFiles) {
+                Class<?> type = Class.forName(packageName + "." + classFile.getName().replace(".class", ""));
+                for (Field field : type.getDeclaredFields()) {
+                    if (field.isAnnotationPresent(org.openqa.selenium.support.FindBy.class)
+                            || field.isAnnotationPresent(FindByChain.class)) {
+                        entries.add(new LocatorEntry(type, field, new Annotations(field).buildBy()));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> resolveUrls() throws URISyntaxException {
+        List<String> urls = new ArrayList<>();
+        String configured = System.getProperty("audit.urls");
+        if (Boolean.getBoolean("audit.standin")) {
+            for (String page : STAND_IN_PAGES) {
+                urls.add(LocatorAudit.class.getClassLoader().getResource(page).toURI().toString());
+            }
+        } else if (configured != null) {
+            urls.addAll(Arrays.asList(configured.split("\\s*,\\s*")));
+        } else {
+            String baseUrl = ConfigManager.getInstance().getBaseUrl();
+            urls.add(baseUrl + "/login");
+            urls.add(baseUrl + "/register");
+        }
+        return urls;
+    }
+
+    private static WebDriver createDriver() {
+        WebDriverManager.chromedriver().setup();
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--no-sandbox", "--disable-dev-shm-usage");
+        return new ChromeDriver(options);
+    }
+
+    private static String pageName(String url) {
+        return url.substring(url.lastIndexOf('/') + 1);
+    }
+
+    private static class LocatorEntry {
+        private final Class<?> owner;
+        private final Field field;
+        private final By by;
+
+        private LocatorEntry(Class<?> owner, Field field, By by) {
+            this.owner = owner;
+            this.field = field;
+            this.by = by;
+        }
+
+        private String name() {
+            return owner.getSimpleName() + "." + field.getName();
+        }
+
+        private List<By> candidates() {
+            return by instanceof FallbackBy ? ((FallbackBy) by).getCandidates() : Collections.singletonList(by);
+        }
+
+        private String testIdHint() {
+            return owner.getSimpleName().replace("Component", "").replace("Page", "").toLowerCase()
+                    + "-" + field.getName().replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase();
+        }
+    }
+}
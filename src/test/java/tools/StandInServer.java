@@ -0,0 +1,156 @@
+package tools;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Server HTTP cục bộ thay cho app thật: phục vụ các trang trong src/test/resources/standin (kèm app.js)
+ * và API đăng nhập/đăng ký với cùng thông báo như app. Dùng cho các lần chạy cần lặp lại được (load test...).
+ *
+ * Chạy riêng: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=tools.StandInServer -Dexec.args=8787
+ */
+public class StandInServer {
+    private static final Logger logger = LoggerFactory.getLogger(StandInServer.class);
+    private static final Map<String, String> PAGES = Map.of(
+            "/", "standin/index.html",
+            "/login", "standin/login.html",
+            "/register", "standin/register.html",
+            "/app.js", "standin/app.js",
+            // Trang có iframe lồng nhau và shadow root cho ElementPathRunner
+            "/widgets", "standin/widgets.html",
+            "/widgets/outer", "standin/widgets-outer.html",
+            "/widgets/inner", "standin/widgets-inner.html",
+            "/widgets.js", "standin/widgets.js");
+
+    private final Json json = new Json();
+    private final Map<String, String[]> users = new ConcurrentHashMap<>();
+    private final long latencyMs;
+    private HttpServer server;
+
+    /**
+     * @param latencyMs độ trễ giả lập cho mỗi lời gọi API
+     */
+    public StandInServer(long latencyMs) {
+        this.latencyMs = latencyMs;
+        // Tài khoản có sẵn mà các feature sử dụng: user/123456, email user@gmail.com
+        users.put("user", new String[]{"user@gmail.com", "123456"});
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8787;
+        new StandInServer(0).start(port);
+    }
+
+    /**
+     * Khởi động server; port 0 = chọn port trống. Trả về base URL, vd: http://localhost:8787
+     */
+    public String start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/", this::handlePage);
+        server.createContext("/api/auth/signin", this::handleSignIn);
+        server.createContext("/api/auth/signup", this::handleSignUp);
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        logger.info("Stand-in server listening on {}", baseUrl);
+        return baseUrl;
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private void handlePage(HttpExchange exchange) throws IOException {
+        String resource = PAGES.get(exchange.getRequestURI().getPath());
+        InputStream input = resource == null ? null : getClass().getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        byte[] body;
+        try (InputStream in = input) {
+            body = in.readAllBytes();
+        }
+        send(exchange, 200, resource.endsWith(".js") ? "application/javascript" : "text/html; charset=utf-8", body);
+    }
+
+    private void handleSignIn(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = readJson(exchange);
+        String[] user = users.get(String.valueOf(request.get("username")));
+        if (user == null) {
+            sendMessage(exchange, 404, "User not found");
+        } else if (!user[1].equals(request.get("password"))) {
+            sendMessage(exchange, 401, "Incorrect username or password");
+        } else {
+            sendMessage(exchange, 200, "Login successful");
+        }
+    }
+
+    private void handleSignUp(HttpExchange exchange) throws IOException {
+        Map<String, Object> request = readJson(exchange);
+        String username = String.valueOf(request.get("username"));
+        String email = String.valueOf(request.get("email"));
+        synchronized (users) {
+            if (users.containsKey(username)) {
+                sendMessage(exchange, 400, "Username is already in use");
+                return;
+            }
+            for (String[] user : users.values()) {
+                if (user[0].equalsIgnoreCase(email)) {
+                    sendMessage(exchange, 400, "Email is already in use");
+                    return;
+                }
+            }
+            users.put(username, new String[]{email, String.valueOf(request.get("password"))});
+        }
+        sendMessage(exchange, 200, "Registration successful! Please login.");
+    }
+
+    private Map<String, Object> readJson(HttpExchange exchange) throws IOException {
+        simulateLatency();
+        try (InputStream in = exchange.getRequestBody()) {
+            return json.toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendMessage(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, "application/json", json.toJson(Map.of("message", message)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
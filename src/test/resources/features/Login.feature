@@ -23,7 +23,8 @@ Feature: User Login Functionality
     Then I should see a message "Login successful"
     And I should be logged in
 
-  @invalid-input
+  # Thông báo validate chỉ có ở phía client, API không trả về nên không chạy ở binding.mode=api
+  @invalid-input @browser-only
   Scenario Outline: Login failed with invalid input
     When I enter "<username>" in the "username" field
     And I enter "<password>" in the "password" field
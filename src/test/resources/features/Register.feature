@@ -23,7 +23,8 @@ Feature: User Registration Functionality
     And I should be redirected to the login page
 
 
-  @invalid-input @register-validation
+  # Thông báo validate chỉ có ở phía client, API không trả về nên không chạy ở binding.mode=api
+  @invalid-input @register-validation @browser-only
   Scenario Outline: Registration failed with invalid input format
     When I enter "<username>" in the "username" field
     And I enter "<email>" in the "email" field
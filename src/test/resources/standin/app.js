@@ -0,0 +1,116 @@
+// Hành vi tối thiểu của app cho trang stand-in khi được phục vụ bởi tools.StandInServer:
+// validate form, gọi API, hiện toast và chuyển trang tại chỗ (history.pushState) như một SPA.
+(function () {
+    var USER_KEY = 'standin.user';
+
+    function currentUser() {
+        return window.localStorage.getItem(USER_KEY);
+    }
+
+    function showToast(text, success) {
+        document.querySelectorAll("div[role='status']").forEach(function (el) { el.remove(); });
+        var toast = document.createElement('div');
+        toast.setAttribute('role', 'status');
+        toast.className = success ? 'toast-success' : 'toast-error';
+        toast.textContent = text;
+        document.body.appendChild(toast);
+        setTimeout(function () { toast.remove(); }, 3000);
+    }
+
+    function go(path, replace) {
+        return fetch(path).then(function (response) { return response.text(); }).then(function (html) {
+            var page = new DOMParser().parseFromString(html, 'text/html');
+            var toasts = Array.prototype.slice.call(document.querySelectorAll("div[role='status']"));
+            document.title = page.title;
+            document.body.innerHTML = page.body.innerHTML;
+            toasts.forEach(function (toast) { document.body.appendChild(toast); });
+            if (!replace) {
+                history.pushState({}, '', path);
+            }
+            render();
+        });
+    }
+
+    function showErrors(form, errors) {
+        form.querySelectorAll('input').forEach(function (input) {
+            var message = input.nextElementSibling;
+            var text = errors[input.name];
+            message.textContent = text || '';
+            message.hidden = !text;
+        });
+    }
+
+    function validate(values) {
+        var errors = {};
+        if (values.username.length < 2 || values.username.length > 20) {
+            errors.username = 'Username must be between 2 and 20 characters';
+        }
+        if ('email' in values && !/^[^@\s]+@[^@\s]+\.[^@\s]+$/.test(values.email)) {
+            errors.email = 'Invalid email address';
+        }
+        if (values.password.length < 6) {
+            errors.password = 'Password must be at least 6 characters';
+        }
+        return errors;
+    }
+
+    function bindForm(form) {
+        var isRegister = !!form.querySelector("input[name='email']");
+        form.addEventListener('submit', function (event) {
+            event.preventDefault();
+            var values = {};
+            form.querySelectorAll('input').forEach(function (input) { values[input.name] = input.value; });
+            var errors = validate(values);
+            showErrors(form, errors);
+            if (Object.keys(errors).length) {
+                return;
+            }
+            fetch(isRegister ? '/api/auth/signup' : '/api/auth/signin', {
+                method: 'POST',
+                headers: {'Content-Type': 'application/json'},
+                body: JSON.stringify(values)
+            }).then(function (response) {
+                return response.json().then(function (body) { return {ok: response.ok, body: body}; });
+            }).then(function (result) {
+                showToast(result.body.message, result.ok);
+                if (!result.ok) {
+                    return;
+                }
+                if (isRegister) {
+                    go('/login');
+                } else {
+                    window.localStorage.setItem(USER_KEY, values.username);
+                    go('/');
+                }
+            });
+        });
+    }
+
+    function render() {
+        var nav = document.querySelector('nav');
+        var user = currentUser();
+        if (location.pathname === '/' && nav) {
+            // Trang dashboard tĩnh luôn hiện trạng thái đã đăng nhập, sửa lại theo phiên thật
+            document.querySelectorAll("div[role='status'].static").forEach(function (el) { el.remove(); });
+            var welcome = nav.querySelector('span');
+            var logout = nav.querySelector('button');
+            if (user) {
+                welcome.textContent = 'Welcome, ' + user;
+                logout.onclick = function () {
+                    window.localStorage.removeItem(USER_KEY);
+                    go('/login');
+                };
+            } else {
+                welcome.remove();
+                logout.remove();
+            }
+        }
+        var form = document.querySelector('form');
+        if (form) {
+            bindForm(form);
+        }
+    }
+
+    window.addEventListener('popstate', function () { go(location.pathname, true); });
+    render();
+})();
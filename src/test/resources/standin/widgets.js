@@ -0,0 +1,14 @@
+// Widget dựng trong shadow root (mode open) cho các trang thử ElementPath/ElementResolver.
+// Nút Refresh thay cả host element, nên shadow root cũ bị gỡ khỏi DOM như khi framework render lại.
+function renderWidget(id, items) {
+    var old = document.getElementById(id);
+    var host = document.createElement('div');
+    host.id = id;
+    var root = host.attachShadow({mode: 'open'});
+    root.innerHTML = '<ul>' + items.map(function (item) { return '<li class="item">' + item + '</li>'; }).join('')
+        + '</ul><button type="button" class="refresh">Refresh</button>';
+    root.querySelector('.refresh').addEventListener('click', function () {
+        renderWidget(id, items.concat(['Item ' + (items.length + 1)]));
+    });
+    old.replaceWith(host);
+}